@@ -1,3 +1,16 @@
+import groovy.json.JsonSlurper
+import java.sql.DriverManager
+
+buildscript {
+    repositories {
+        mavenCentral()
+    }
+    dependencies {
+        // Used by generate<BuildType>SeedDatabase to write the prepackaged database asset
+        classpath("org.xerial:sqlite-jdbc:3.45.1.0")
+    }
+}
+
 plugins {
     id("com.android.application")
     id("org.jetbrains.kotlin.android")
@@ -40,10 +53,19 @@ android {
     }
     buildFeatures {
         compose = true
+        buildConfig = true
     }
     composeOptions {
         kotlinCompilerExtensionVersion = "1.5.4"
     }
+    testOptions {
+        // Robolectric tests read merged assets (seed CSV, prepackaged database)
+        unitTests.isIncludeAndroidResources = true
+    }
+    sourceSets {
+        // Exported Room schemas, for MigrationTestHelper in the Robolectric tests (debug only)
+        getByName("debug").assets.srcDir("$projectDir/schemas")
+    }
     packaging {
         resources {
             excludes += "/META-INF/{AL2.0,LGPL2.1}"
@@ -51,6 +73,168 @@ android {
     }
 }
 
+ksp {
+    arg("room.schemaLocation", "$projectDir/schemas")
+}
+
+// 🌱 Prepackaged database for Room's createFromAsset: the schema comes from Room's exported
+// JSON for the newest version (checked in under app/schemas, so schema changes show up in
+// review), the categories from the same CSV DatabaseModule seeds from. One task per build
+// type, each waiting only on that build type's Room (KSP) run, which refreshes the JSON.
+fun writeSeedDatabase(schemaDir: File, categoriesCsv: File, dbFile: File) {
+    val schemaFile = schemaDir.listFiles { f -> f.extension == "json" }
+        ?.maxByOrNull { it.nameWithoutExtension.toInt() }
+        ?: throw GradleException("No exported Room schema in $schemaDir - run ksp<Variant>Kotlin to export it")
+
+    @Suppress("UNCHECKED_CAST")
+    val database = (JsonSlurper().parse(schemaFile) as Map<String, Any>)["database"] as Map<String, Any>
+    @Suppress("UNCHECKED_CAST")
+    val entities = database["entities"] as List<Map<String, Any>>
+
+    dbFile.parentFile.mkdirs()
+    dbFile.delete()
+
+    DriverManager.getConnection("jdbc:sqlite:${dbFile.absolutePath}").use { connection ->
+        connection.autoCommit = false
+        connection.createStatement().use { statement ->
+            entities.forEach { entity ->
+                val table = entity["tableName"] as String
+                statement.execute((entity["createSql"] as String).replace("\${TABLE_NAME}", table))
+                @Suppress("UNCHECKED_CAST")
+                (entity["indices"] as? List<Map<String, Any>>).orEmpty().forEach { index ->
+                    statement.execute(
+                        (index["createSql"] as String)
+                            .replace("\${INDEX_NAME}", index["name"] as String)
+                            .replace("\${TABLE_NAME}", table)
+                    )
+                }
+                // FTS entities keep their index in sync through Room-generated triggers
+                @Suppress("UNCHECKED_CAST")
+                (entity["contentSyncTriggers"] as? List<String>).orEmpty().forEach { statement.execute(it) }
+            }
+            // No room_master_table: Room validates the copied file against its entities on first
+            // open and stamps the identity hash itself, so the asset can't carry a stale one
+
+            // Default profile row, same values DatabaseModule would insert
+            statement.execute(
+                "INSERT INTO user_profile (id, incomeAmount, fixedBillsAmount, savingsGoalAmount, " +
+                    "incomeFrequency, resetDay, currency, setupCompleted) " +
+                    "VALUES (1, 0, 0, 0, 'MONTHLY', 1, '₱', 0)"
+            )
+            statement.execute("PRAGMA user_version = ${database["version"]}")
+        }
+
+        connection.prepareStatement(
+            "INSERT INTO categories (id, name, icon, color) VALUES (?, ?, ?, ?)"
+        ).use { insert ->
+            categoriesCsv.readLines().drop(1).filter { it.isNotBlank() }.forEach { line ->
+                val (id, name, icon, color) = line.split(",")
+                insert.setLong(1, id.toLong())
+                insert.setString(2, name)
+                insert.setString(3, icon)
+                insert.setInt(4, color.toLong(16).toInt())
+                insert.executeUpdate()
+            }
+        }
+        connection.commit()
+    }
+}
+
+listOf("debug", "release").forEach { buildType ->
+    val variant = buildType.replaceFirstChar { it.uppercase() }
+    val outputDir = layout.buildDirectory.dir("generated/seedDatabase/$buildType")
+    val seedTask = tasks.register("generate${variant}SeedDatabase") {
+        description = "Builds the $buildType assets/databases/baryabuddy_seed.db from the exported Room schema"
+        val schemaDir = file("schemas/com.baryabuddy.app.data.database.AppDatabase")
+        val categoriesCsv = file("src/main/assets/seed/categories.csv")
+        val outputFile = outputDir.map { it.file("databases/baryabuddy_seed.db") }
+        inputs.dir(schemaDir).optional()
+        inputs.file(categoriesCsv)
+        outputs.file(outputFile)
+        // The exported schema is written by this build type's Room KSP run
+        dependsOn("ksp${variant}Kotlin")
+
+        doLast {
+            writeSeedDatabase(schemaDir, categoriesCsv, outputFile.get().asFile)
+        }
+    }
+
+    android.sourceSets.getByName(buildType).assets.srcDir(outputDir)
+    tasks.configureEach {
+        if (name == "merge${variant}Assets") {
+            dependsOn(seedTask)
+        }
+    }
+}
+
+// ⏱️ JMH benchmarks live in the unit-test source set (app/src/test/java/.../benchmark) so
+// they can call app code directly; these tasks run them on the debug unit-test classpath.
+// Extra JMH options: -PjmhArgs="-p ledgerSize=10000 -wi 1"
+fun jmhBenchmarkTask(taskName: String, benchmark: String, reportName: String) {
+    tasks.register<JavaExec>(taskName) {
+        group = "verification"
+        description = "Runs $benchmark (JMH) with the gc profiler"
+        dependsOn("compileDebugUnitTestJavaWithJavac")
+        classpath(provider { tasks.getByName<Test>("testDebugUnitTest").classpath })
+        mainClass.set("org.openjdk.jmh.Main")
+        val resultFile = layout.buildDirectory.file("reports/jmh/$reportName.json")
+        outputs.file(resultFile)
+        outputs.upToDateWhen { false }
+        args(benchmark, "-prof", "gc", "-rf", "json")
+        argumentProviders.add(CommandLineArgumentProvider {
+            listOf("-rff", resultFile.get().asFile.absolutePath) +
+                providers.gradleProperty("jmhArgs").orNull?.split(" ")?.filter { it.isNotBlank() }.orEmpty()
+        })
+        doFirst { resultFile.get().asFile.parentFile.mkdirs() }
+    }
+}
+jmhBenchmarkTask("dssBenchmark", "DailySafeSpendBenchmark", "dss")
+jmhBenchmarkTask("rowMappingBenchmark", "RowMappingBenchmark", "row-mapping")
+
+// 🐢 Heavy suites (large generated ledgers) stay out of the regular unit-test runs; each one
+// runs through its own Test task on the debug unit-test classpath.
+val heavySuites = mutableMapOf<String, String>() // task name -> test class
+fun heavySuiteTask(taskName: String, suite: String, configure: Test.() -> Unit) {
+    heavySuites[taskName] = suite
+    tasks.register<Test>(taskName) {
+        group = "verification"
+        val unitTest = tasks.getByName<Test>("testDebugUnitTest")
+        testClassesDirs = unitTest.testClassesDirs
+        classpath = unitTest.classpath
+        filter.includeTestsMatching(suite)
+        outputs.upToDateWhen { false }
+        configure()
+    }
+}
+tasks.withType<Test>().configureEach {
+    if (name !in heavySuites) {
+        heavySuites.values.forEach { filter.excludeTestsMatching(it) }
+    }
+}
+
+// ⏱️ Builds ledgers of up to 100k rows. Writes build/reports/dao-latency.json and fails on a
+// regression against src/test/resources/dao-latency-baseline.json; -PupdateDaoBaseline
+// rewrites the baseline instead.
+heavySuiteTask("daoLatencyTest", "com.baryabuddy.app.data.database.dao.DaoLatencySuite") {
+    description = "Measures p50/p99 per DAO method and compares them with the checked-in baseline"
+    systemProperty("daoLatency.report", layout.buildDirectory.file("reports/dao-latency.json").get().asFile.absolutePath)
+    systemProperty("daoLatency.baseline", file("src/test/resources/dao-latency-baseline.json").absolutePath)
+    if (providers.gradleProperty("updateDaoBaseline").isPresent) {
+        systemProperty("daoLatency.updateBaseline", "true")
+    }
+}
+
+// 🚚 Copies a 1M-row ledger through ChunkedMigrationRunner and bounds the slowest chunk
+heavySuiteTask("migrationLoadTest", "com.baryabuddy.app.data.database.migration.ChunkedMigrationLoadSuite") {
+    description = "Runs a sample ChunkedMigration over a 1M-row generated ledger"
+}
+
+// 🧠 Exports 500k rows in a forked JVM whose heap is far too small to hold them
+heavySuiteTask("exportHeapTest", "com.baryabuddy.app.data.transfer.TransactionExportHeapSuite") {
+    description = "Exports a 500k-row ledger with a 256 MB test heap"
+    maxHeapSize = "256m"
+}
+
 dependencies {
     // Room
     implementation("androidx.room:room-runtime:2.6.1")
@@ -76,6 +260,13 @@ dependencies {
     // Navigation
     implementation("androidx.navigation:navigation-compose:2.7.6")
 
+    // Paging
+    implementation("androidx.paging:paging-runtime-ktx:3.2.1")
+    implementation("androidx.paging:paging-compose:3.2.1")
+
+    // Tracing (sections show up in system traces / Perfetto)
+    implementation("androidx.tracing:tracing-ktx:1.2.0")
+
     // Coroutines
     implementation("org.jetbrains.kotlinx:kotlinx-coroutines-android:1.7.3")
 
@@ -84,6 +275,12 @@ dependencies {
 
     // Testing
     testImplementation("junit:junit:4.13.2")
+    testImplementation("org.robolectric:robolectric:4.11.1")
+    testImplementation("androidx.test:core-ktx:1.5.0")
+    testImplementation("androidx.room:room-testing:2.6.1")
+    testImplementation("org.jetbrains.kotlinx:kotlinx-coroutines-test:1.7.3")
+    testImplementation("org.openjdk.jmh:jmh-core:1.37")
+    testAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
     androidTestImplementation("androidx.test.ext:junit:1.1.5")
     androidTestImplementation("androidx.test.espresso:espresso-core:3.5.1")
     androidTestImplementation(platform("androidx.compose:compose-bom:2024.02.00"))
@@ -0,0 +1,32 @@
+package com.baryabuddy.app
+
+import android.app.Application
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.repository.BaryaBuddyRepository
+import com.baryabuddy.app.data.transfer.BackupCheckpoints
+import com.baryabuddy.app.tracing.TraceRecorder
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+
+class BaryaBuddyApplication : Application() {
+
+    // 🌐 Lives as long as the process: hosts app-wide caches shared by every screen
+    val applicationScope = CoroutineScope(SupervisorJob() + Dispatchers.Default)
+
+    val database: AppDatabase by lazy { AppDatabase.getDatabase(this) }
+
+    // One repository (and so one set of caches) per process, not per Activity
+    val repository: BaryaBuddyRepository by lazy { BaryaBuddyRepository(database, applicationScope, BackupCheckpoints(this)) }
+
+    override fun onCreate() {
+        super.onCreate()
+        // 🧪 Keep recent trace sections in memory for the debug trace dump
+        TraceRecorder.enabled = BuildConfig.DEBUG
+        // Picks up a data migration interrupted by process death, or starts a new one
+        applicationScope.launch {
+            repository.runPendingMigrations()
+        }
+    }
+}
@@ -4,16 +4,23 @@ import android.os.Bundle
 import androidx.activity.ComponentActivity
 import androidx.activity.compose.setContent
 import androidx.activity.enableEdgeToEdge
+import androidx.compose.foundation.layout.Column
 import androidx.compose.foundation.layout.fillMaxSize
+import androidx.compose.foundation.layout.fillMaxWidth
+import androidx.compose.foundation.layout.padding
+import androidx.compose.material3.LinearProgressIndicator
 import androidx.compose.material3.MaterialTheme
 import androidx.compose.material3.Surface
+import androidx.compose.material3.Text
 import androidx.compose.runtime.Composable
 import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.runtime.collectAsState
 import androidx.compose.runtime.getValue
 import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.remember
 import androidx.compose.runtime.setValue
 import androidx.compose.ui.Modifier
+import androidx.compose.ui.unit.dp
 import androidx.lifecycle.viewmodel.compose.viewModel
 import androidx.navigation.compose.rememberNavController
 import com.baryabuddy.app.data.database.AppDatabase
@@ -28,6 +35,7 @@ import com.baryabuddy.app.presentation.onboarding.OnboardingViewModel
 import com.baryabuddy.app.ui.theme.BaryaBuddyTheme
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.launch
 
 class MainActivity : ComponentActivity() {
@@ -37,10 +45,11 @@ class MainActivity : ComponentActivity() {
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
 
-        // Initialize database
-        database = AppDatabase.getDatabase(applicationContext)
-        DatabaseModule.initializeDatabase(applicationContext)
-        repository = BaryaBuddyRepository(database)
+        // Initialize database (shared with the rest of the process via the Application)
+        val app = application as BaryaBuddyApplication
+        database = app.database
+        val seeding = DatabaseModule.initializeDatabase(applicationContext)
+        repository = app.repository
 
         enableEdgeToEdge()
 
@@ -50,7 +59,7 @@ class MainActivity : ComponentActivity() {
                     modifier = Modifier.fillMaxSize(),
                     color = MaterialTheme.colorScheme.background
                 ) {
-                    AppContent(repository)
+                    AppContent(repository, seeding)
                 }
             }
         }
@@ -58,11 +67,14 @@ class MainActivity : ComponentActivity() {
 }
 
 @Composable
-fun AppContent(repository: BaryaBuddyRepository) {
+fun AppContent(repository: BaryaBuddyRepository, seeding: Job) {
     val navController = rememberNavController()
     var startDestination by remember { mutableStateOf<String?>(null) }
 
     LaunchedEffect(Unit) {
+        // Seeding creates the profile row on first launch, so read it only afterwards.
+        // This first read also warms the repository's shared profile cache.
+        seeding.join()
         val profile = repository.getUserProfileOnce()
         startDestination = if (profile?.setupCompleted == true) {
             Screen.Home.route
@@ -71,12 +83,29 @@ fun AppContent(repository: BaryaBuddyRepository) {
         }
     }
 
-    startDestination?.let { destination ->
-        NavGraph(
-            navController = navController,
-            startDestination = destination,
-            repository = repository
-        )
+    val migration by repository.migrationProgress.collectAsState()
+
+    Column(modifier = Modifier.fillMaxSize()) {
+        // 🚚 A data migration runs in the background; the app stays usable meanwhile
+        migration?.let { progress ->
+            LinearProgressIndicator(
+                progress = progress.fraction,
+                modifier = Modifier.fillMaxWidth()
+            )
+            Text(
+                text = "Upgrading your data… ${(progress.fraction * 100).toInt()}%",
+                style = MaterialTheme.typography.bodySmall,
+                modifier = Modifier.padding(horizontal = 16.dp, vertical = 4.dp)
+            )
+        }
+
+        startDestination?.let { destination ->
+            NavGraph(
+                navController = navController,
+                startDestination = destination,
+                repository = repository
+            )
+        }
     }
 }
 
@@ -8,27 +8,45 @@ import androidx.room.TypeConverters
 import androidx.room.migration.Migration
 import androidx.sqlite.db.SupportSQLiteDatabase
 import com.baryabuddy.app.data.database.dao.CategoryDao
+import com.baryabuddy.app.data.database.dao.ChangeLogDao
+import com.baryabuddy.app.data.database.dao.DailyTotalDao
+import com.baryabuddy.app.data.database.dao.MigrationProgressDao
 import com.baryabuddy.app.data.database.dao.TransactionDao
 import com.baryabuddy.app.data.database.dao.UserProfileDao
 import com.baryabuddy.app.data.database.entities.Category
+import com.baryabuddy.app.data.database.entities.ChangeLogEntry
+import com.baryabuddy.app.data.database.entities.DailyTotal
+import com.baryabuddy.app.data.database.entities.MigrationProgressEntry
 import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.entities.TransactionFts
 import com.baryabuddy.app.data.database.entities.UserProfile
+import com.baryabuddy.app.data.database.metrics.QueryMetrics
+import com.baryabuddy.app.data.database.metrics.QueryTimingExecutor
+import java.util.concurrent.Executors
 
 @Database(
-    entities = [Transaction::class, Category::class, UserProfile::class],
-    version = 4,
-    exportSchema = false
+    entities = [Transaction::class, TransactionFts::class, Category::class, UserProfile::class, DailyTotal::class, ChangeLogEntry::class, MigrationProgressEntry::class],
+    version = 10,
+    exportSchema = true
 )
 @TypeConverters(Converters::class)
 abstract class AppDatabase : RoomDatabase() {
     abstract fun transactionDao(): TransactionDao
     abstract fun categoryDao(): CategoryDao
     abstract fun userProfileDao(): UserProfileDao
+    abstract fun dailyTotalDao(): DailyTotalDao
+    abstract fun changeLogDao(): ChangeLogDao
+    abstract fun migrationProgressDao(): MigrationProgressDao
 
     companion object {
         @Volatile
         private var INSTANCE: AppDatabase? = null
 
+        // Generated by the :app generate<BuildType>SeedDatabase Gradle tasks
+        private const val SEED_ASSET_PATH = "databases/baryabuddy_seed.db"
+        // Same pool size as Room's default IO executor
+        private const val QUERY_THREADS = 4
+
         private val MIGRATION_1_2 = object : Migration(1, 2) {
             override fun migrate(database: SupportSQLiteDatabase) {
                 // Add transactionType column with default value 'expense'
@@ -94,16 +112,193 @@ abstract class AppDatabase : RoomDatabase() {
             }
         }
 
+        private val MIGRATION_4_5 = object : Migration(4, 5) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                // Index names must match what Room generates for Transaction's @Entity indices
+                database.execSQL("CREATE INDEX IF NOT EXISTS index_transactions_date_createdAt ON transactions (date, createdAt)")
+                database.execSQL("CREATE INDEX IF NOT EXISTS index_transactions_categoryId ON transactions (categoryId)")
+            }
+        }
+
+        private val MIGRATION_5_6 = object : Migration(5, 6) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                database.execSQL("CREATE TABLE IF NOT EXISTS daily_totals (" +
+                        "epochDay INTEGER NOT NULL, " +
+                        "incomeCentavos INTEGER NOT NULL, " +
+                        "expenseCentavos INTEGER NOT NULL, " +
+                        "txCount INTEGER NOT NULL, " +
+                        "PRIMARY KEY(epochDay))")
+
+                // Backfill from the existing ledger, then let triggers take over. Kept exactly
+                // as shipped in version 6 (day derived from the local-time date column);
+                // MIGRATION_6_7 drops these triggers and installs the epochDay ones.
+                database.execSQL("DELETE FROM daily_totals")
+                database.execSQL("INSERT INTO daily_totals (epochDay, incomeCentavos, expenseCentavos, txCount) " +
+                        "SELECT ${V6_EPOCH_DAY.format("date")} AS day, " +
+                        "SUM(CASE WHEN categoryId IS NULL THEN amountCentavos ELSE 0 END), " +
+                        "SUM(CASE WHEN categoryId IS NOT NULL THEN amountCentavos ELSE 0 END), " +
+                        "COUNT(*) " +
+                        "FROM transactions GROUP BY day")
+                database.execSQL("CREATE TRIGGER IF NOT EXISTS daily_totals_after_insert AFTER INSERT ON transactions " +
+                        "BEGIN ${v6AddRow("NEW")} END")
+                database.execSQL("CREATE TRIGGER IF NOT EXISTS daily_totals_after_update AFTER UPDATE ON transactions " +
+                        "BEGIN ${v6RemoveRow("OLD")} ${v6AddRow("NEW")} END")
+                database.execSQL("CREATE TRIGGER IF NOT EXISTS daily_totals_after_delete AFTER DELETE ON transactions " +
+                        "BEGIN ${v6RemoveRow("OLD")} END")
+            }
+        }
+
+        // Version 6 trigger bodies, frozen for MIGRATION_5_6 (DailyTotalsTriggers has moved on)
+        private const val V6_EPOCH_DAY = "CAST(julianday(%s / 1000, 'unixepoch', 'localtime') - 2440587.5 AS INTEGER)"
+
+        private fun v6AddRow(row: String) = """
+            INSERT OR IGNORE INTO daily_totals (epochDay, incomeCentavos, expenseCentavos, txCount)
+                VALUES (${V6_EPOCH_DAY.format("$row.date")}, 0, 0, 0);
+            UPDATE daily_totals SET
+                incomeCentavos = incomeCentavos + CASE WHEN $row.categoryId IS NULL THEN $row.amountCentavos ELSE 0 END,
+                expenseCentavos = expenseCentavos + CASE WHEN $row.categoryId IS NOT NULL THEN $row.amountCentavos ELSE 0 END,
+                txCount = txCount + 1
+                WHERE epochDay = ${V6_EPOCH_DAY.format("$row.date")};
+        """
+
+        private fun v6RemoveRow(row: String) = """
+            UPDATE daily_totals SET
+                incomeCentavos = incomeCentavos - CASE WHEN $row.categoryId IS NULL THEN $row.amountCentavos ELSE 0 END,
+                expenseCentavos = expenseCentavos - CASE WHEN $row.categoryId IS NOT NULL THEN $row.amountCentavos ELSE 0 END,
+                txCount = txCount - 1
+                WHERE epochDay = ${V6_EPOCH_DAY.format("$row.date")};
+            DELETE FROM daily_totals WHERE epochDay = ${V6_EPOCH_DAY.format("$row.date")} AND txCount <= 0;
+        """
+
+        private val MIGRATION_6_7 = object : Migration(6, 7) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                // Old triggers read transactions.date, which is about to go away
+                DailyTotalsTriggers.drop(database)
+
+                // date (UTC millis) -> dateUtcMillis, plus the local day it falls on. The day
+                // is taken in the device's current zone once, here, and never recomputed.
+                database.execSQL("CREATE TABLE transactions_new (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                        "amountCentavos INTEGER NOT NULL, " +
+                        "categoryId INTEGER, " +
+                        "description TEXT, " +
+                        "dateUtcMillis INTEGER NOT NULL, " +
+                        "epochDay INTEGER NOT NULL, " +
+                        "createdAt INTEGER NOT NULL)")
+
+                database.execSQL("INSERT INTO transactions_new (id, amountCentavos, categoryId, description, dateUtcMillis, epochDay, createdAt) " +
+                        "SELECT id, amountCentavos, categoryId, description, date, " +
+                        "CAST(julianday(date / 1000, 'unixepoch', 'localtime') - 2440587.5 AS INTEGER), " +
+                        "createdAt FROM transactions")
+
+                database.execSQL("DROP TABLE transactions")
+                database.execSQL("ALTER TABLE transactions_new RENAME TO transactions")
+                database.execSQL("CREATE INDEX IF NOT EXISTS index_transactions_dateUtcMillis_createdAt ON transactions (dateUtcMillis, createdAt)")
+                database.execSQL("CREATE INDEX IF NOT EXISTS index_transactions_categoryId ON transactions (categoryId)")
+                database.execSQL("CREATE INDEX IF NOT EXISTS index_transactions_epochDay ON transactions (epochDay)")
+
+                DailyTotalsTriggers.rebuild(database)
+                DailyTotalsTriggers.create(database)
+            }
+        }
+
+        private val MIGRATION_7_8 = object : Migration(7, 8) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                // Table and trigger SQL must match what Room generates for TransactionFts
+                database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `transactions_fts` " +
+                        "USING FTS4(`description` TEXT, tokenize=unicode61, content=`transactions`)")
+                database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_transactions_fts_BEFORE_UPDATE " +
+                        "BEFORE UPDATE ON `transactions` BEGIN DELETE FROM `transactions_fts` WHERE `docid`=OLD.`rowid`; END")
+                database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_transactions_fts_BEFORE_DELETE " +
+                        "BEFORE DELETE ON `transactions` BEGIN DELETE FROM `transactions_fts` WHERE `docid`=OLD.`rowid`; END")
+                database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_transactions_fts_AFTER_UPDATE " +
+                        "AFTER UPDATE ON `transactions` BEGIN INSERT INTO `transactions_fts`(`docid`, `description`) " +
+                        "VALUES (NEW.`rowid`, NEW.`description`); END")
+                database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_transactions_fts_AFTER_INSERT " +
+                        "AFTER INSERT ON `transactions` BEGIN INSERT INTO `transactions_fts`(`docid`, `description`) " +
+                        "VALUES (NEW.`rowid`, NEW.`description`); END")
+
+                // Index the existing ledger in one pass
+                database.execSQL("INSERT INTO transactions_fts(transactions_fts) VALUES('rebuild')")
+            }
+        }
+
+        private val MIGRATION_8_9 = object : Migration(8, 9) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                database.execSQL("CREATE TABLE IF NOT EXISTS change_log (" +
+                        "seq INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                        "op TEXT NOT NULL, " +
+                        "rowId INTEGER NOT NULL)")
+
+                // Existing rows count as inserts, so changesSince(0) replays the whole ledger
+                database.execSQL("INSERT INTO change_log (op, rowId) SELECT 'I', id FROM transactions ORDER BY id")
+                ChangeLogTriggers.create(database)
+            }
+        }
+
+        // From here on, row copies belong in a ChunkedMigration; Room migrations stay DDL-only
+        private val MIGRATION_9_10 = object : Migration(9, 10) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                database.execSQL("CREATE TABLE IF NOT EXISTS migration_progress (" +
+                        "id TEXT NOT NULL, " +
+                        "lastKey INTEGER NOT NULL, " +
+                        "rowsDone INTEGER NOT NULL, " +
+                        "completed INTEGER NOT NULL, " +
+                        "PRIMARY KEY(id))")
+            }
+        }
+
+        // Every Room migration, oldest first; internal so migration tests can run them step by step
+        internal val ALL_MIGRATIONS = arrayOf(
+            MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6,
+            MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10
+        )
+
+        // internal so in-memory test databases get the same triggers
+        internal fun callback(context: Context) = object : RoomDatabase.Callback() {
+            override fun onCreate(db: SupportSQLiteDatabase) {
+                // Triggers aren't part of Room's generated schema, so fresh installs add them here
+                DailyTotalsTriggers.create(db)
+                ChangeLogTriggers.create(db)
+                // A brand-new file has no seed data, whatever the stored seed version says
+                DatabaseModule.resetSeedVersion(context)
+            }
+
+            override fun onDestructiveMigration(db: SupportSQLiteDatabase) {
+                DatabaseModule.resetSeedVersion(context)
+            }
+        }
+
+        // First install copies the build-generated asset (categories + default profile already in it)
+        private fun prepackagedCallback(context: Context) = object : RoomDatabase.PrepackagedDatabaseCallback() {
+            override fun onOpenPrepackagedDatabase(db: SupportSQLiteDatabase) {
+                DailyTotalsTriggers.create(db)
+                ChangeLogTriggers.create(db)
+                DatabaseModule.markSeeded(context)
+            }
+        }
+
         fun getDatabase(context: Context): AppDatabase {
             return INSTANCE ?: synchronized(this) {
-                val instance = Room.databaseBuilder(
+                val builder = Room.databaseBuilder(
                     context.applicationContext,
                     AppDatabase::class.java,
                     "baryabuddy_database"
                 )
-                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4)
-                    .fallbackToDestructiveMigration() // For development - remove in production
-                    .build()
+                    .createFromAsset(SEED_ASSET_PATH, prepackagedCallback(context.applicationContext))
+                    .addMigrations(*ALL_MIGRATIONS)
+                    .addCallback(callback(context.applicationContext))
+                    // Every upgrade has a migration; only a downgrade may start over
+                    .fallbackToDestructiveMigrationOnDowngrade()
+                // 📊 Opt-in query timing; when off nothing is installed
+                if (QueryMetrics.isEnabled(context)) {
+                    val recorder = QueryMetrics.recorder
+                    builder
+                        // Direct executor: the callback runs on the query's own thread, right before it
+                        .setQueryCallback({ sql, _ -> recorder.onQuery(sql) }, Runnable::run)
+                        .setQueryExecutor(QueryTimingExecutor(Executors.newFixedThreadPool(QUERY_THREADS), recorder))
+                }
+                val instance = builder.build()
                 INSTANCE = instance
                 instance
             }
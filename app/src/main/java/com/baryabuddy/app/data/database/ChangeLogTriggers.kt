@@ -0,0 +1,25 @@
+package com.baryabuddy.app.data.database
+
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * SQL that appends every write to transactions to change_log, in the same transaction as
+ * the write itself - so the log can't miss a change, whichever code path made it.
+ */
+object ChangeLogTriggers {
+
+    fun create(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS change_log_after_insert AFTER INSERT ON transactions " +
+                "BEGIN INSERT INTO change_log (op, rowId) VALUES ('I', NEW.id); END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS change_log_after_update AFTER UPDATE ON transactions " +
+                "BEGIN INSERT INTO change_log (op, rowId) VALUES ('U', NEW.id); END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS change_log_after_delete AFTER DELETE ON transactions " +
+                "BEGIN INSERT INTO change_log (op, rowId) VALUES ('D', OLD.id); END"
+        )
+    }
+}
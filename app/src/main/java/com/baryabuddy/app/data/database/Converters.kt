@@ -2,27 +2,10 @@ package com.baryabuddy.app.data.database
 
 import androidx.room.TypeConverter
 import com.baryabuddy.app.data.database.entities.IncomeFrequency
-import java.time.Instant
-import java.time.LocalDateTime
-import java.time.ZoneId
 
 class Converters {
-    // --- 📅 Date Converters ---
-    @TypeConverter
-    fun fromTimestamp(value: Long?): LocalDateTime? {
-        return value?.let { 
-            Instant.ofEpochMilli(it)
-                .atZone(ZoneId.systemDefault())
-                .toLocalDateTime() 
-        }
-    }
-
-    @TypeConverter
-    fun dateToTimestamp(date: LocalDateTime?): Long? {
-        return date?.atZone(ZoneId.systemDefault())
-            ?.toInstant()
-            ?.toEpochMilli()
-    }
+    // 📅 No date converters: transactions store dateUtcMillis/epochDay as plain Longs
+    // (see LedgerDate), so reading a row never touches java.time.
 
     // --- 🔠 Enum Converters (Safe String Storage) ---
     @TypeConverter
@@ -0,0 +1,66 @@
+package com.baryabuddy.app.data.database
+
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * SQL that keeps daily_totals in step with transactions.
+ *
+ * Each trigger touches a single daily_totals row, so a write costs O(1) regardless of
+ * ledger size. The day is the row's own epochDay column, written by the app at insert
+ * time, so no date maths happens in SQLite and a time-zone change can't re-bucket days.
+ */
+object DailyTotalsTriggers {
+
+    private fun addRow(row: String) = """
+        INSERT OR IGNORE INTO daily_totals (epochDay, incomeCentavos, expenseCentavos, txCount)
+            VALUES ($row.epochDay, 0, 0, 0);
+        UPDATE daily_totals SET
+            incomeCentavos = incomeCentavos + CASE WHEN $row.categoryId IS NULL THEN $row.amountCentavos ELSE 0 END,
+            expenseCentavos = expenseCentavos + CASE WHEN $row.categoryId IS NOT NULL THEN $row.amountCentavos ELSE 0 END,
+            txCount = txCount + 1
+            WHERE epochDay = $row.epochDay;
+    """
+
+    private fun removeRow(row: String) = """
+        UPDATE daily_totals SET
+            incomeCentavos = incomeCentavos - CASE WHEN $row.categoryId IS NULL THEN $row.amountCentavos ELSE 0 END,
+            expenseCentavos = expenseCentavos - CASE WHEN $row.categoryId IS NOT NULL THEN $row.amountCentavos ELSE 0 END,
+            txCount = txCount - 1
+            WHERE epochDay = $row.epochDay;
+        DELETE FROM daily_totals WHERE epochDay = $row.epochDay AND txCount <= 0;
+    """
+
+    fun create(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS daily_totals_after_insert AFTER INSERT ON transactions " +
+                "BEGIN ${addRow("NEW")} END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS daily_totals_after_update AFTER UPDATE ON transactions " +
+                "BEGIN ${removeRow("OLD")} ${addRow("NEW")} END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS daily_totals_after_delete AFTER DELETE ON transactions " +
+                "BEGIN ${removeRow("OLD")} END"
+        )
+    }
+
+    fun drop(db: SupportSQLiteDatabase) {
+        db.execSQL("DROP TRIGGER IF EXISTS daily_totals_after_insert")
+        db.execSQL("DROP TRIGGER IF EXISTS daily_totals_after_update")
+        db.execSQL("DROP TRIGGER IF EXISTS daily_totals_after_delete")
+    }
+
+    // 🔧 Recompute every day from scratch, e.g. when a migration rebuilds transactions (caller wraps in a transaction)
+    fun rebuild(db: SupportSQLiteDatabase) {
+        db.execSQL("DELETE FROM daily_totals")
+        db.execSQL(
+            "INSERT INTO daily_totals (epochDay, incomeCentavos, expenseCentavos, txCount) " +
+                "SELECT epochDay, " +
+                "SUM(CASE WHEN categoryId IS NULL THEN amountCentavos ELSE 0 END), " +
+                "SUM(CASE WHEN categoryId IS NOT NULL THEN amountCentavos ELSE 0 END), " +
+                "COUNT(*) " +
+                "FROM transactions GROUP BY epochDay"
+        )
+    }
+}
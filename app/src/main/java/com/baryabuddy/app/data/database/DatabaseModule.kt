@@ -1,101 +1,101 @@
 package com.baryabuddy.app.data.database
 
 import android.content.Context
-import androidx.compose.ui.graphics.Color
-import androidx.compose.ui.graphics.toArgb
+import androidx.room.withTransaction
 import com.baryabuddy.app.data.database.entities.Category
 import com.baryabuddy.app.data.database.entities.IncomeFrequency
 import com.baryabuddy.app.data.database.entities.UserProfile
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.SupervisorJob
-import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.launch
 
 object DatabaseModule {
-    fun initializeDatabase(context: Context) {
+    // 🌱 Bump whenever the seed CSV changes so existing installs pick it up once
+    private const val SEED_VERSION = 1
+    private const val PREFS_NAME = "baryabuddy_seed"
+    private const val KEY_SEED_VERSION = "seed_version"
+
+    // Pre-populate categories with student-friendly names. The same CSV feeds the
+    // prepackaged database asset (see writeSeedDatabase in app/build.gradle.kts).
+    private const val SEED_CATEGORIES_ASSET = "seed/categories.csv"
+
+    private fun loadSeedCategories(context: Context): List<Category> {
+        return context.assets.open(SEED_CATEGORIES_ASSET).bufferedReader().useLines { lines ->
+            lines.drop(1)
+                .filter { it.isNotBlank() }
+                .map { line ->
+                    val (id, name, icon, color) = line.split(",")
+                    Category(
+                        id = id.toLong(),
+                        name = name,
+                        icon = icon,
+                        color = color.toLong(16).toInt() // ARGB hex, e.g. FFFF6B6B
+                    )
+                }
+                .toList()
+        }
+    }
+
+    /**
+     * Seeds categories and the default profile. Returns the seeding [Job] so callers can
+     * wait for it before reading the profile. On first install the database is copied from
+     * the prepackaged asset, which already holds the seed rows, so nothing is inserted.
+     * Later starts are a single SharedPreferences read unless SEED_VERSION was bumped, in
+     * which case everything is written in one transaction (one Room invalidation).
+     */
+    fun initializeDatabase(context: Context): Job {
         val database = AppDatabase.getDatabase(context)
         val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
 
-        scope.launch {
-            // Pre-populate categories with student-friendly names
-            val categories = listOf(
-                Category(
-                    id = 1,
-                    name = "Food & Canteen",
-                    icon = "food",
-                    color = Color(0xFFFF6B6B).toArgb()
-                ),
-                Category(
-                    id = 2,
-                    name = "Commute",
-                    icon = "transport",
-                    color = Color(0xFF4ECDC4).toArgb()
-                ),
-                Category(
-                    id = 3,
-                    name = "Load & Data",
-                    icon = "data",
-                    color = Color(0xFFFFE66D).toArgb()
-                ),
-                Category(
-                    id = 4,
-                    name = "Gimik / Fun",
-                    icon = "entertainment",
-                    color = Color(0xFF95E1D3).toArgb()
-                ),
-                Category(
-                    id = 5,
-                    name = "Lazada / Shopee",
-                    icon = "shopping",
-                    color = Color(0xFFF38181).toArgb()
-                ),
-                Category(
-                    id = 6,
-                    name = "Academics",
-                    icon = "school",
-                    color = Color(0xFFAA96DA).toArgb()
-                ),
-                Category(
-                    id = 7,
-                    name = "Subscriptions",
-                    icon = "sub",
-                    color = Color(0xFFFCBAD3).toArgb()
-                ),
-                Category(
-                    id = 8,
-                    name = "Other",
-                    icon = "other",
-                    color = Color(0xFFC7CEEA).toArgb()
-                )
-            )
+        return scope.launch {
+            // Opening the database performs the asset copy (and markSeeded) if it's needed
+            database.openHelper.writableDatabase
 
-            // Always update categories to ensure correct colors (REPLACE strategy)
-            categories.forEach { category ->
-                try {
-                    database.categoryDao().insert(category)
-                } catch (e: Exception) {
-                    // Category might already exist, ignore
-                }
+            val prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+            if (prefs.getInt(KEY_SEED_VERSION, 0) == SEED_VERSION) {
+                return@launch
             }
 
-            // Initialize UserProfile if it doesn't exist
-            val profile = database.userProfileDao().getProfileOnce()
-            if (profile == null) {
-                database.userProfileDao().insert(
-                    UserProfile(
-                        id = 1,
-                        incomeAmount = 0L,
-                        fixedBillsAmount = 0L,
-                        savingsGoalAmount = 0L,
-                        incomeFrequency = IncomeFrequency.MONTHLY,
-                        resetDay = 1,
-                        currency = "₱",
-                        setupCompleted = false
+            database.withTransaction {
+                // REPLACE keeps seeded categories' names/colors current
+                database.categoryDao().insertAll(loadSeedCategories(context))
+
+                // Initialize UserProfile if it doesn't exist
+                if (database.userProfileDao().getProfileOnce() == null) {
+                    database.userProfileDao().insert(
+                        UserProfile(
+                            id = 1,
+                            incomeAmount = 0L,
+                            fixedBillsAmount = 0L,
+                            savingsGoalAmount = 0L,
+                            incomeFrequency = IncomeFrequency.MONTHLY,
+                            resetDay = 1,
+                            currency = "₱",
+                            setupCompleted = false
+                        )
                     )
-                )
+                }
             }
+
+            prefs.edit().putInt(KEY_SEED_VERSION, SEED_VERSION).apply()
         }
     }
-}
 
+    // Called when the database was copied from the prepackaged asset, which is already seeded
+    fun markSeeded(context: Context) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+            .edit()
+            .putInt(KEY_SEED_VERSION, SEED_VERSION)
+            .apply()
+    }
+
+    // Called when the database file is (re)created so the next start seeds it again
+    fun resetSeedVersion(context: Context) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+            .edit()
+            .remove(KEY_SEED_VERSION)
+            .apply()
+    }
+}
@@ -12,10 +12,16 @@ interface CategoryDao {
     @Query("SELECT * FROM categories ORDER BY id")
     fun getAll(): Flow<List<Category>>
 
+    @Query("SELECT * FROM categories ORDER BY id")
+    suspend fun getAllOnce(): List<Category>
+
     @Query("SELECT * FROM categories WHERE id = :id")
     suspend fun getById(id: Long): Category?
 
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     suspend fun insert(category: Category)
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertAll(categories: List<Category>)
 }
 
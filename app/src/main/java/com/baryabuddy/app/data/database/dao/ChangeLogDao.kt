@@ -0,0 +1,23 @@
+package com.baryabuddy.app.data.database.dao
+
+import androidx.room.Dao
+import androidx.room.Query
+import com.baryabuddy.app.domain.model.TransactionDelta
+
+@Dao
+interface ChangeLogDao {
+    // Next page of changes after [afterSeq], oldest first, each with the row as it is now
+    @Query(
+        "SELECT l.seq, l.op, l.rowId, " +
+            "t.id AS t_id, t.amountCentavos AS t_amountCentavos, t.categoryId AS t_categoryId, " +
+            "t.description AS t_description, t.dateUtcMillis AS t_dateUtcMillis, " +
+            "t.epochDay AS t_epochDay, t.createdAt AS t_createdAt " +
+            "FROM change_log l LEFT JOIN transactions t ON t.id = l.rowId " +
+            "WHERE l.seq > :afterSeq ORDER BY l.seq LIMIT :limit"
+    )
+    suspend fun getChangesAfter(afterSeq: Long, limit: Int): List<TransactionDelta>
+
+    // 🧹 Compaction: entries the backup has written and its sink acknowledged are no longer needed
+    @Query("DELETE FROM change_log WHERE seq <= :seq")
+    suspend fun deleteUpTo(seq: Long): Int
+}
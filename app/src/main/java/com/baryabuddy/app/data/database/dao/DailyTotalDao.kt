@@ -0,0 +1,17 @@
+package com.baryabuddy.app.data.database.dao
+
+import androidx.room.Dao
+import androidx.room.Query
+import com.baryabuddy.app.domain.model.PeriodTotals
+
+@Dao
+interface DailyTotalDao {
+    // At most one row per day in [startDay, endDay), whatever the transaction volume
+    @Query(
+        "SELECT " +
+            "COALESCE(SUM(incomeCentavos), 0) AS incomeCentavos, " +
+            "COALESCE(SUM(expenseCentavos), 0) AS expenseCentavos " +
+            "FROM daily_totals WHERE epochDay >= :startDay AND epochDay < :endDay"
+    )
+    suspend fun getTotalsBetweenOnce(startDay: Long, endDay: Long): PeriodTotals
+}
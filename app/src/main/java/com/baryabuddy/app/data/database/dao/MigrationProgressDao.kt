@@ -0,0 +1,16 @@
+package com.baryabuddy.app.data.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.baryabuddy.app.data.database.entities.MigrationProgressEntry
+
+@Dao
+interface MigrationProgressDao {
+    @Query("SELECT * FROM migration_progress WHERE id = :id")
+    suspend fun get(id: String): MigrationProgressEntry?
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun upsert(entry: MigrationProgressEntry)
+}
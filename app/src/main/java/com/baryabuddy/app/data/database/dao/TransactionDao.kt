@@ -6,28 +6,90 @@ import androidx.room.Insert
 import androidx.room.Query
 import androidx.room.Update
 import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.domain.model.TransactionRow
 import kotlinx.coroutines.flow.Flow
 
+/**
+ * Ledger reads and writes.
+ *
+ * Write invariant: every write to transactions goes through BaryaBuddyRepository, which
+ * reports it on ledgerChanges - RowChanged for a single row, Bulk for anything batched
+ * (imports, synthetic data, data migrations). getRecentTransactionRows patches its list from
+ * that bus and does not observe the transactions table, so a write made here directly
+ * would not reach the dashboard until the next Bulk.
+ */
 @Dao
 interface TransactionDao {
-    @Query("SELECT * FROM transactions ORDER BY date DESC, createdAt DESC")
+    @Query("SELECT * FROM transactions ORDER BY dateUtcMillis DESC, createdAt DESC")
     fun getAll(): Flow<List<Transaction>>
 
-    @Query("SELECT * FROM transactions WHERE date >= :startOfMonth AND date < :startOfNextMonth ORDER BY date DESC, createdAt DESC")
+    @Query("SELECT * FROM transactions WHERE dateUtcMillis >= :startOfMonth AND dateUtcMillis < :startOfNextMonth ORDER BY dateUtcMillis DESC, createdAt DESC")
     fun getByMonth(startOfMonth: Long, startOfNextMonth: Long): Flow<List<Transaction>>
 
-    @Query("SELECT SUM(amountCentavos) FROM transactions WHERE date >= :startOfMonth AND date < :startOfNextMonth")
+    @Query("SELECT SUM(amountCentavos) FROM transactions WHERE dateUtcMillis >= :startOfMonth AND dateUtcMillis < :startOfNextMonth")
     suspend fun getTotalByMonth(startOfMonth: Long, startOfNextMonth: Long): Long?
 
-    @Query("SELECT * FROM transactions ORDER BY date DESC, createdAt DESC LIMIT :limit")
+    // 📆 Rows whose local day is in [startDay, endDay), on the epochDay index
+    @Query("SELECT * FROM transactions WHERE epochDay >= :startDay AND epochDay < :endDay ORDER BY dateUtcMillis DESC, createdAt DESC")
+    fun getByEpochDays(startDay: Long, endDay: Long): Flow<List<Transaction>>
+
+    @Query("SELECT * FROM transactions ORDER BY dateUtcMillis DESC, createdAt DESC LIMIT :limit")
     fun getRecent(limit: Int = 10): Flow<List<Transaction>>
 
+    // 🧾 List rows with their category already joined in, so callers never look categories up.
+    // Also the first page of history paging.
+    @Query(
+        "SELECT $ROW_COLUMNS FROM transactions t LEFT JOIN categories c ON c.id = t.categoryId " +
+            "ORDER BY t.dateUtcMillis DESC, t.createdAt DESC, t.id DESC LIMIT :limit"
+    )
+    suspend fun getRecentRowsOnce(limit: Int = 10): List<TransactionRow>
+
+    // 📜 Keyset paging on (dateUtcMillis, createdAt, id), newest first. The leading
+    // "dateUtcMillis <= :dateUtcMillis" term lets SQLite seek on the (dateUtcMillis, createdAt) index instead of skipping OFFSET rows.
+    @Query(
+        "SELECT $ROW_COLUMNS FROM transactions t LEFT JOIN categories c ON c.id = t.categoryId " +
+            "WHERE t.dateUtcMillis <= :dateUtcMillis AND (t.dateUtcMillis < :dateUtcMillis OR t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.dateUtcMillis DESC, t.createdAt DESC, t.id DESC LIMIT :limit"
+    )
+    suspend fun getPageBefore(dateUtcMillis: Long, createdAt: Long, id: Long, limit: Int): List<TransactionRow>
+
+    @Query(
+        "SELECT $ROW_COLUMNS FROM transactions t LEFT JOIN categories c ON c.id = t.categoryId " +
+            "WHERE t.dateUtcMillis <= :dateUtcMillis AND (t.dateUtcMillis < :dateUtcMillis OR t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id <= :id)) " +
+            "ORDER BY t.dateUtcMillis DESC, t.createdAt DESC, t.id DESC LIMIT :limit"
+    )
+    suspend fun getPageFrom(dateUtcMillis: Long, createdAt: Long, id: Long, limit: Int): List<TransactionRow>
+
+    // Oldest first; callers reverse it to keep newest-first order
+    @Query(
+        "SELECT $ROW_COLUMNS FROM transactions t LEFT JOIN categories c ON c.id = t.categoryId " +
+            "WHERE t.dateUtcMillis >= :dateUtcMillis AND (t.dateUtcMillis > :dateUtcMillis OR t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) " +
+            "ORDER BY t.dateUtcMillis ASC, t.createdAt ASC, t.id ASC LIMIT :limit"
+    )
+    suspend fun getPageAfter(dateUtcMillis: Long, createdAt: Long, id: Long, limit: Int): List<TransactionRow>
+
+    // 🔎 Full-text match on description, narrowed by optional category and [startDay, endDay)
+    // filters (null = no filter). The FTS index yields the matching ids; the rest is the
+    // usual row join, newest first.
+    @Query(
+        "SELECT $ROW_COLUMNS FROM transactions t LEFT JOIN categories c ON c.id = t.categoryId " +
+            "WHERE t.id IN (SELECT docid FROM transactions_fts WHERE transactions_fts MATCH :match) " +
+            "AND (:categoryId IS NULL OR t.categoryId = :categoryId) " +
+            "AND (:startDay IS NULL OR t.epochDay >= :startDay) " +
+            "AND (:endDay IS NULL OR t.epochDay < :endDay) " +
+            "ORDER BY t.dateUtcMillis DESC, t.createdAt DESC, t.id DESC LIMIT :limit"
+    )
+    suspend fun search(match: String, categoryId: Int?, startDay: Long?, endDay: Long?, limit: Int): List<TransactionRow>
+
     @Query("SELECT * FROM transactions WHERE id = :id")
     suspend fun getById(id: Long): Transaction?
 
     @Insert
     suspend fun insert(transaction: Transaction): Long
 
+    @Insert
+    suspend fun insertAll(transactions: List<Transaction>)
+
     @Update
     suspend fun update(transaction: Transaction)
 
@@ -35,3 +97,6 @@ interface TransactionDao {
     suspend fun delete(transaction: Transaction)
 }
 
+private const val ROW_COLUMNS =
+    "t.id, t.amountCentavos, t.categoryId, t.description, t.dateUtcMillis, t.createdAt, " +
+        "c.name AS categoryName, c.icon AS categoryIcon, c.color AS categoryColor"
@@ -0,0 +1,24 @@
+package com.baryabuddy.app.data.database.entities
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+// 🧾 One row per write to transactions, appended by SQLite triggers (see ChangeLogTriggers).
+// seq only ever grows (AUTOINCREMENT), so "everything after seq N" is a cheap range read.
+@Entity(tableName = "change_log")
+data class ChangeLogEntry(
+    @PrimaryKey(autoGenerate = true)
+    val seq: Long = 0,
+
+    // OP_INSERT / OP_UPDATE / OP_DELETE
+    val op: String,
+
+    // transactions.id of the row that changed
+    val rowId: Long
+) {
+    companion object {
+        const val OP_INSERT = "I"
+        const val OP_UPDATE = "U"
+        const val OP_DELETE = "D"
+    }
+}
@@ -0,0 +1,19 @@
+package com.baryabuddy.app.data.database.entities
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+// 📊 One row per day that has transactions, maintained by SQLite triggers
+// (see DailyTotalsTriggers) - never written from Kotlin directly.
+@Entity(tableName = "daily_totals")
+data class DailyTotal(
+    // Days since 1970-01-01 in the device's local time zone (LocalDate.toEpochDay())
+    @PrimaryKey
+    val epochDay: Long,
+
+    // 💰 Centavos, split the same way as Transaction: NULL category = income
+    val incomeCentavos: Long,
+    val expenseCentavos: Long,
+
+    val txCount: Int
+)
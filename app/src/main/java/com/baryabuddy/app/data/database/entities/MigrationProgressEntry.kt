@@ -0,0 +1,17 @@
+package com.baryabuddy.app.data.database.entities
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+// 🚚 Where a ChunkedMigration got to. Written in the same transaction as each chunk, so
+// after a crash the migration resumes exactly after the last committed chunk.
+@Entity(tableName = "migration_progress")
+data class MigrationProgressEntry(
+    @PrimaryKey
+    val id: String,
+
+    // Key of the last row processed (rows are walked in ascending key order)
+    val lastKey: Long = Long.MIN_VALUE,
+    val rowsDone: Long = 0,
+    val completed: Boolean = false
+)
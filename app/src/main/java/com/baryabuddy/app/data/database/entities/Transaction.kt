@@ -1,10 +1,19 @@
 package com.baryabuddy.app.data.database.entities
 
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
-import java.time.LocalDateTime
 
-@Entity(tableName = "transactions")
+@Entity(
+    tableName = "transactions",
+    indices = [
+        // 🔍 Serves "ORDER BY dateUtcMillis DESC, createdAt DESC" without a temp sort
+        Index(value = ["dateUtcMillis", "createdAt"]),
+        Index(value = ["categoryId"]),
+        // 📆 Period/day range scans
+        Index(value = ["epochDay"])
+    ]
+)
 data class Transaction(
     @PrimaryKey(autoGenerate = true)
     val id: Long = 0,
@@ -20,8 +29,12 @@ data class Transaction(
     
     val description: String? = null,
     
-    // 📅 Time Logic: Stored as LocalDateTime via TypeConverter
-    val date: LocalDateTime,
+    // 📅 Time Logic: the instant as UTC epoch millis, plus the local calendar day it was
+    // recorded on (LocalDate.toEpochDay()). Periods and daily_totals only look at epochDay,
+    // so a later time-zone change never moves a transaction to another day.
+    // Build both from a LocalDateTime with LedgerDate.
+    val dateUtcMillis: Long,
+    val epochDay: Long,
     
     val createdAt: Long = System.currentTimeMillis()
 ) {
@@ -29,4 +42,3 @@ data class Transaction(
     val type: TransactionType
         get() = if (categoryId == null) TransactionType.INCOME else TransactionType.EXPENSE
 }
-
@@ -0,0 +1,13 @@
+package com.baryabuddy.app.data.database.entities
+
+import androidx.room.Entity
+import androidx.room.Fts4
+import androidx.room.FtsOptions
+
+// 🔎 External-content FTS4 index over transactions.description. The text itself lives only
+// in transactions; Room adds the triggers that keep this index in sync on every write.
+@Fts4(contentEntity = Transaction::class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "transactions_fts")
+data class TransactionFts(
+    val description: String?
+)
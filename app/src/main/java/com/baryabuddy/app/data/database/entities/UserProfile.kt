@@ -14,11 +14,12 @@ data class UserProfile(
     val savingsGoalAmount: Long = 0L,
     
     // 🆕 FOR STUDENTS: How often do they receive this money?
-    // If WEEKLY, logic will do: incomeAmount * 4
+    // Amounts above are per period: WEEKLY = one week, otherwise one month
     val incomeFrequency: IncomeFrequency = IncomeFrequency.MONTHLY,
     
     // 🆕 FOR STUDENTS: When does the "month" reset?
     // Students might get allowance on Fridays, not the 1st of the month.
+    // MONTHLY/IRREGULAR: day of month (1-31). WEEKLY: day of week (1 = Monday ... 7 = Sunday).
     val resetDay: Int = 1,
     
     val currency: String = "₱",
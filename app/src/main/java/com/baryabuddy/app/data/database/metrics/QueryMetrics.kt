@@ -0,0 +1,26 @@
+package com.baryabuddy.app.data.database.metrics
+
+import android.content.Context
+
+/**
+ * Opt-in query instrumentation switch. Read once when the database is built: while off,
+ * neither the QueryCallback nor the timing executor is installed, so there is no cost at all.
+ */
+object QueryMetrics {
+    private const val PREFS_NAME = "baryabuddy_debug"
+    private const val KEY_ENABLED = "query_metrics_enabled"
+
+    val recorder = QueryMetricsRecorder()
+
+    fun isEnabled(context: Context): Boolean {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).getBoolean(KEY_ENABLED, false)
+    }
+
+    // Takes effect the next time the process starts
+    fun setEnabled(context: Context, enabled: Boolean) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+            .edit()
+            .putBoolean(KEY_ENABLED, enabled)
+            .apply()
+    }
+}
@@ -0,0 +1,151 @@
+package com.baryabuddy.app.data.database.metrics
+
+import com.baryabuddy.app.util.JsonStrings
+import java.util.concurrent.ConcurrentHashMap
+
+// Immutable per-statement numbers for display/export
+data class StatementSnapshot(
+    val sql: String,
+    val count: Long,
+    // Executions that ran on Room's (wrapped) executors and so have a duration
+    val timedCount: Long,
+    val totalNanos: Long,
+    val maxNanos: Long,
+    val histogram: List<Long>
+) {
+    val averageMillis: Double
+        get() = if (timedCount == 0L) 0.0 else totalNanos / timedCount / 1_000_000.0
+
+    val totalMillis: Double
+        get() = totalNanos / 1_000_000.0
+
+    val maxMillis: Double
+        get() = maxNanos / 1_000_000.0
+
+    // Upper bound of the histogram bucket holding the [percentile]-th execution
+    fun percentileMillis(percentile: Double): Double {
+        if (timedCount == 0L) return 0.0
+        val target = (timedCount * percentile).toLong().coerceAtLeast(1)
+        var seen = 0L
+        histogram.forEachIndexed { index, bucket ->
+            seen += bucket
+            if (seen >= target) {
+                return if (index < BUCKET_BOUNDS_MICROS.size) BUCKET_BOUNDS_MICROS[index] / 1_000.0 else maxMillis
+            }
+        }
+        return maxMillis
+    }
+
+    companion object {
+        // Histogram bucket upper bounds; the last bucket catches everything slower
+        val BUCKET_BOUNDS_MICROS = longArrayOf(100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000)
+    }
+}
+
+/**
+ * Per-SQL-statement counters fed by Room's QueryCallback and [QueryTimingExecutor].
+ *
+ * The callback runs synchronously on the thread about to execute the statement, so a
+ * statement's duration is measured from its callback to the next statement on that thread
+ * or to the end of the executor task - i.e. the query plus the cursor mapping Room does
+ * right after it. Statements run outside Room's executors (raw exports, the generator)
+ * are counted but untimed.
+ */
+class QueryMetricsRecorder {
+
+    private class PendingStatement(val sql: String, val startNanos: Long)
+
+    private class StatementStats(val sql: String) {
+        private var count = 0L
+        private var timedCount = 0L
+        private var totalNanos = 0L
+        private var maxNanos = 0L
+        private val histogram = LongArray(StatementSnapshot.BUCKET_BOUNDS_MICROS.size + 1)
+
+        @Synchronized
+        fun add(nanos: Long?) {
+            count++
+            if (nanos == null) return
+            timedCount++
+            totalNanos += nanos
+            if (nanos > maxNanos) maxNanos = nanos
+            val micros = nanos / 1_000
+            val bucket = StatementSnapshot.BUCKET_BOUNDS_MICROS.indexOfFirst { micros <= it }
+            histogram[if (bucket < 0) histogram.size - 1 else bucket]++
+        }
+
+        @Synchronized
+        fun snapshot() = StatementSnapshot(sql, count, timedCount, totalNanos, maxNanos, histogram.toList())
+    }
+
+    private val stats = ConcurrentHashMap<String, StatementStats>()
+    private val running = ThreadLocal<PendingStatement?>()
+    private val taskDepth = ThreadLocal<Int>()
+
+    // RoomDatabase.QueryCallback
+    fun onQuery(sql: String) {
+        val now = System.nanoTime()
+        finishRunning(now)
+        if ((taskDepth.get() ?: 0) > 0) {
+            running.set(PendingStatement(sql, now))
+        } else {
+            record(sql, null)
+        }
+    }
+
+    fun runTimed(task: Runnable) {
+        val depth = taskDepth.get() ?: 0
+        taskDepth.set(depth + 1)
+        try {
+            task.run()
+        } finally {
+            finishRunning(System.nanoTime())
+            taskDepth.set(depth)
+        }
+    }
+
+    // Slowest (by total time) first
+    fun snapshot(): List<StatementSnapshot> {
+        return stats.values.map { it.snapshot() }.sortedByDescending { it.totalNanos }
+    }
+
+    fun reset() {
+        stats.clear()
+    }
+
+    fun toJson(capturedAtMillis: Long = System.currentTimeMillis()): String {
+        val out = StringBuilder()
+        out.append("{\"capturedAt\":").append(capturedAtMillis).append(",\"statements\":[")
+        snapshot().forEachIndexed { index, s ->
+            if (index > 0) out.append(',')
+            out.append("\n{\"sql\":")
+            JsonStrings.append(out, s.sql)
+            out.append(",\"count\":").append(s.count)
+            out.append(",\"timedCount\":").append(s.timedCount)
+            out.append(",\"totalMs\":").append(s.totalMillis)
+            out.append(",\"avgMs\":").append(s.averageMillis)
+            out.append(",\"p50Ms\":").append(s.percentileMillis(0.50))
+            out.append(",\"p95Ms\":").append(s.percentileMillis(0.95))
+            out.append(",\"maxMs\":").append(s.maxMillis)
+            out.append(",\"histogram\":{")
+            s.histogram.forEachIndexed { bucket, n ->
+                if (bucket > 0) out.append(',')
+                val label = StatementSnapshot.BUCKET_BOUNDS_MICROS.getOrNull(bucket)?.let { "<=${it}us" } ?: "slower"
+                out.append('"').append(label).append("\":").append(n)
+            }
+            out.append("}}")
+        }
+        out.append("\n]}\n")
+        return out.toString()
+    }
+
+    private fun finishRunning(now: Long) {
+        val pending = running.get() ?: return
+        running.set(null)
+        record(pending.sql, now - pending.startNanos)
+    }
+
+    private fun record(sql: String, nanos: Long?) {
+        stats.getOrPut(sql) { StatementStats(sql) }.add(nanos)
+    }
+}
@@ -0,0 +1,14 @@
+package com.baryabuddy.app.data.database.metrics
+
+import java.util.concurrent.Executor
+
+// Room query executor wrapper: marks each task so the recorder can close the last statement
+// it ran when the task (query + mapping) finishes
+class QueryTimingExecutor(
+    private val delegate: Executor,
+    private val recorder: QueryMetricsRecorder
+) : Executor {
+    override fun execute(command: Runnable) {
+        delegate.execute { recorder.runTimed(command) }
+    }
+}
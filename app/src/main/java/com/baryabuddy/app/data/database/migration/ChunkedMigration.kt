@@ -0,0 +1,37 @@
+package com.baryabuddy.app.data.database.migration
+
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * A data migration that runs after the database is open, in small resumable chunks.
+ *
+ * Room's Migration objects run inside the first open and block it, so a table rebuild like
+ * MIGRATION_2_3 or MIGRATION_6_7 costs seconds on a big ledger. Instead, a schema change
+ * should:
+ *  1. In its Room Migration, only do the cheap DDL: create the new table/columns/indices.
+ *  2. Copy or transform the rows here, chunk by chunk, while the app keeps working on the
+ *     old structures (writes made meanwhile must be mirrored, e.g. by a temporary trigger).
+ *  3. Switch over in [finish], which runs once, after the last chunk.
+ *
+ * Implementations walk rows in ascending [Long] key order (usually rowid/id) and must be
+ * idempotent per chunk: a chunk and its progress row commit together, so after process
+ * death the runner simply continues after the last committed key.
+ */
+abstract class ChunkedMigration(
+    // Stable, unique name; the progress row is keyed by it
+    val id: String
+) {
+    // Rows still to process after [afterKey] (for progress only; an estimate is fine)
+    abstract fun countRemaining(db: SupportSQLiteDatabase, afterKey: Long): Long
+
+    /**
+     * Processes up to [limit] rows with key > [afterKey].
+     * @return the last key processed, or null when there was nothing left.
+     */
+    abstract fun migrateChunk(db: SupportSQLiteDatabase, afterKey: Long, limit: Int): ChunkResult?
+
+    // Runs once, in the same transaction that marks the migration completed
+    open fun finish(db: SupportSQLiteDatabase) {}
+
+    data class ChunkResult(val lastKey: Long, val rows: Int)
+}
@@ -0,0 +1,79 @@
+package com.baryabuddy.app.data.database.migration
+
+import androidx.room.withTransaction
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.MigrationProgressEntry
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import kotlinx.coroutines.yield
+
+data class MigrationProgress(
+    val migrationId: String,
+    val rowsDone: Long,
+    val rowsTotal: Long,
+    val finished: Boolean = false
+) {
+    val fraction: Float
+        get() = if (rowsTotal <= 0) 1f else (rowsDone.toFloat() / rowsTotal).coerceAtMost(1f)
+}
+
+/**
+ * Runs [ChunkedMigrations.ALL] in order, one short transaction per chunk, yielding between
+ * chunks so normal reads and writes interleave with the migration instead of waiting on it.
+ */
+class ChunkedMigrationRunner(
+    private val database: AppDatabase,
+    private val migrations: List<ChunkedMigration> = ChunkedMigrations.ALL,
+    private val chunkSize: Int = DEFAULT_CHUNK_SIZE
+) {
+    private val runLock = Mutex()
+
+    // null when nothing is running
+    private val _progress = MutableStateFlow<MigrationProgress?>(null)
+    val progress: StateFlow<MigrationProgress?> = _progress.asStateFlow()
+
+    suspend fun runPending() = runLock.withLock {
+        withContext(Dispatchers.IO) {
+            migrations.forEach { run(it) }
+            _progress.value = null
+        }
+    }
+
+    private suspend fun run(migration: ChunkedMigration) {
+        val dao = database.migrationProgressDao()
+        var state = dao.get(migration.id) ?: MigrationProgressEntry(migration.id)
+        if (state.completed) return
+
+        val db = database.openHelper.writableDatabase
+        val total = state.rowsDone + migration.countRemaining(db, state.lastKey)
+        _progress.value = MigrationProgress(migration.id, state.rowsDone, total)
+
+        while (!state.completed) {
+            currentCoroutineContext().ensureActive()
+            state = database.withTransaction {
+                val chunk = migration.migrateChunk(db, state.lastKey, chunkSize)
+                val next = if (chunk == null) {
+                    migration.finish(db)
+                    state.copy(completed = true)
+                } else {
+                    state.copy(lastKey = chunk.lastKey, rowsDone = state.rowsDone + chunk.rows)
+                }
+                dao.upsert(next)
+                next
+            }
+            _progress.value = MigrationProgress(migration.id, state.rowsDone, total, state.completed)
+            yield()
+        }
+    }
+
+    companion object {
+        const val DEFAULT_CHUNK_SIZE = 2_000
+    }
+}
@@ -0,0 +1,174 @@
+package com.baryabuddy.app.data.generator
+
+import androidx.room.withTransaction
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.Transaction
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.withContext
+import java.time.LocalDate
+import java.time.ZoneId
+import java.time.ZoneOffset
+import kotlin.random.Random
+
+/**
+ * Shape of a generated ledger. Category ids are the seeded ones (seed/categories.csv).
+ * Amounts are centavo ranges, inclusive.
+ */
+data class LedgerDistribution(
+    val historyDays: Int = 730,
+    // An allowance (income, categoryId == null) lands on the first row of every N-th day
+    val allowanceEveryDays: Int = 7,
+    val allowanceCentavos: LongRange = 100_000L..250_000L,
+    // Relative weights; a category with weight 0 never appears
+    val categoryWeights: Map<Int, Int> = DEFAULT_CATEGORY_WEIGHTS,
+    val expenseCentavos: Map<Int, LongRange> = DEFAULT_EXPENSE_CENTAVOS,
+    val descriptions: Map<Int, List<String>> = DEFAULT_DESCRIPTIONS,
+    // Share of rows that get a description (the rest are NULL, like quick entries)
+    val describedShare: Double = 0.6
+) {
+    companion object {
+        val DEFAULT_CATEGORY_WEIGHTS = mapOf(1 to 35, 2 to 20, 3 to 10, 4 to 10, 5 to 8, 6 to 7, 7 to 4, 8 to 6)
+
+        val DEFAULT_EXPENSE_CENTAVOS = mapOf(
+            1 to 4_000L..25_000L,   // Food & Canteen
+            2 to 1_300L..15_000L,   // Commute
+            3 to 5_000L..30_000L,   // Load & Data
+            4 to 10_000L..80_000L,  // Gimik / Fun
+            5 to 15_000L..150_000L, // Lazada / Shopee
+            6 to 2_000L..60_000L,   // Academics
+            7 to 14_900L..54_900L,  // Subscriptions
+            8 to 1_000L..50_000L    // Other
+        )
+
+        val DEFAULT_DESCRIPTIONS = mapOf(
+            0 to listOf("Allowance", "Weekly baon", "Sideline", "Padala from Tita"),
+            1 to listOf("Lunch", "Siomai rice", "Milk tea", "Canteen", "Jollibee"),
+            2 to listOf("Jeep", "Tricycle", "Grab", "LRT", "Bus"),
+            3 to listOf("Globe load", "Smart load", "GigaSurf", "Data promo"),
+            4 to listOf("Movie", "Karaoke", "Billiards", "Gala with friends"),
+            5 to listOf("Shopee order", "Lazada sale", "Phone case", "Shoes"),
+            6 to listOf("Photocopy", "Book", "Project materials", "School fee"),
+            7 to listOf("Spotify", "Netflix", "YouTube Premium", "iCloud"),
+            8 to listOf("Gift", "Haircut", "Medicine", "Misc")
+        )
+    }
+}
+
+/**
+ * Reproducible student-style ledger: the same seed, distribution and end date always give
+ * the same rows, so benchmarks, UI jank tests and migration tests can share fixtures.
+ *
+ * Rows are spread evenly over [LedgerDistribution.historyDays] ending on [endDate], in
+ * chronological order, with random times between 07:00 and 22:00.
+ */
+class SyntheticLedgerGenerator(
+    private val seed: Long = DEFAULT_SEED,
+    private val distribution: LedgerDistribution = LedgerDistribution(),
+    private val endDate: LocalDate = FIXTURE_END_DATE,
+    private val zone: ZoneId = ZoneOffset.UTC
+) {
+
+    fun generate(count: Int): Sequence<Transaction> = sequence {
+        val random = Random(seed)
+        val categories = distribution.categoryWeights.filterValues { it > 0 }.keys.sorted()
+        val cumulativeWeights = categories.runningFold(0) { sum, id -> sum + distribution.categoryWeights.getValue(id) }.drop(1)
+        val totalWeight = cumulativeWeights.lastOrNull() ?: 0
+        val firstDay = endDate.toEpochDay() - distribution.historyDays + 1
+        var nextAllowanceDay = firstDay
+
+        for (i in 0 until count) {
+            val epochDay = firstDay + i.toLong() * distribution.historyDays / count
+            val isAllowance = epochDay >= nextAllowanceDay || totalWeight == 0
+            if (isAllowance) nextAllowanceDay = epochDay + distribution.allowanceEveryDays
+
+            val categoryId = if (isAllowance) {
+                null
+            } else {
+                val pick = random.nextInt(totalWeight)
+                categories[cumulativeWeights.indexOfFirst { pick < it }]
+            }
+            val amount = if (categoryId == null) {
+                random.nextLong(distribution.allowanceCentavos.first, distribution.allowanceCentavos.last + 1)
+            } else {
+                val range = distribution.expenseCentavos[categoryId] ?: DEFAULT_EXPENSE_RANGE
+                random.nextLong(range.first, range.last + 1)
+            }
+            val description = if (random.nextDouble() < distribution.describedShare) {
+                distribution.descriptions[categoryId ?: 0]?.takeIf { it.isNotEmpty() }?.let { it[random.nextInt(it.size)] }
+            } else {
+                null
+            }
+            val secondOfDay = FIRST_SECOND_OF_DAY + random.nextInt(ACTIVE_SECONDS_PER_DAY)
+            val dateUtcMillis = LocalDate.ofEpochDay(epochDay)
+                .atStartOfDay(zone)
+                .plusSeconds(secondOfDay.toLong())
+                .toInstant()
+                .toEpochMilli()
+
+            yield(
+                Transaction(
+                    amountCentavos = amount,
+                    categoryId = categoryId,
+                    description = description,
+                    dateUtcMillis = dateUtcMillis,
+                    epochDay = epochDay,
+                    createdAt = dateUtcMillis
+                )
+            )
+        }
+    }
+
+    /**
+     * Inserts [count] generated rows with one compiled INSERT, [batchSize] rows per
+     * transaction. Triggers (daily_totals, FTS, change_log) fire as for real writes, and each
+     * batch commits through Room so its observers (history paging, Room flows) are notified.
+     * @return the number of rows written
+     */
+    suspend fun writeTo(
+        database: AppDatabase,
+        count: Int,
+        batchSize: Int = DEFAULT_BATCH_SIZE,
+        onProgress: (written: Int) -> Unit = {}
+    ): Int = withContext(Dispatchers.IO) {
+        val db = database.openHelper.writableDatabase
+        val insert = db.compileStatement(
+            "INSERT INTO transactions (amountCentavos, categoryId, description, dateUtcMillis, epochDay, createdAt) " +
+                "VALUES (?, ?, ?, ?, ?, ?)"
+        )
+        var written = 0
+        insert.use {
+            generate(count).chunked(batchSize).forEach { batch ->
+                currentCoroutineContext().ensureActive()
+                database.withTransaction {
+                    batch.forEach { row ->
+                        insert.clearBindings()
+                        insert.bindLong(1, row.amountCentavos)
+                        row.categoryId?.let { insert.bindLong(2, it.toLong()) } ?: insert.bindNull(2)
+                        row.description?.let { insert.bindString(3, it) } ?: insert.bindNull(3)
+                        insert.bindLong(4, row.dateUtcMillis)
+                        insert.bindLong(5, row.epochDay)
+                        insert.bindLong(6, row.createdAt)
+                        insert.executeInsert()
+                    }
+                }
+                written += batch.size
+                onProgress(written)
+            }
+        }
+        written
+    }
+
+    companion object {
+        const val DEFAULT_SEED = 42L
+        const val DEFAULT_BATCH_SIZE = 1_000
+
+        // Fixed so fixtures don't change with the day they're generated on
+        val FIXTURE_END_DATE: LocalDate = LocalDate.of(2025, 1, 31)
+
+        private const val FIRST_SECOND_OF_DAY = 7 * 3600
+        private const val ACTIVE_SECONDS_PER_DAY = 15 * 3600
+        private val DEFAULT_EXPENSE_RANGE = 1_000L..20_000L
+    }
+}
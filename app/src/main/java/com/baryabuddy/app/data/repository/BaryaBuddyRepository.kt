@@ -1,16 +1,109 @@
 package com.baryabuddy.app.data.repository
 
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
+import androidx.room.withTransaction
 import com.baryabuddy.app.data.database.AppDatabase
 import com.baryabuddy.app.data.database.entities.Category
 import com.baryabuddy.app.data.database.entities.Transaction
 import com.baryabuddy.app.data.database.entities.UserProfile
+import com.baryabuddy.app.data.generator.SyntheticLedgerGenerator
+import com.baryabuddy.app.data.database.migration.ChunkedMigrationRunner
+import com.baryabuddy.app.data.database.migration.MigrationProgress
+import com.baryabuddy.app.data.transfer.BackupCheckpoints
+import com.baryabuddy.app.data.transfer.BackupResult
+import com.baryabuddy.app.data.transfer.CsvTransactionImporter
+import com.baryabuddy.app.data.transfer.ExportFormat
+import com.baryabuddy.app.data.transfer.ExportProgress
+import com.baryabuddy.app.data.transfer.ImportProgress
+import com.baryabuddy.app.data.transfer.IncrementalBackupWriter
+import com.baryabuddy.app.data.transfer.SyncSink
+import com.baryabuddy.app.data.transfer.TransactionExporter
+import com.baryabuddy.app.domain.model.BudgetPeriod
+import com.baryabuddy.app.domain.model.LedgerChange
+import com.baryabuddy.app.domain.model.PeriodTotals
+import com.baryabuddy.app.domain.model.TransactionDelta
+import com.baryabuddy.app.domain.model.TransactionRow
+import com.baryabuddy.app.domain.usecase.BudgetPeriodCalculator
+import com.baryabuddy.app.domain.usecase.IncrementalDailySafeSpend
+import com.baryabuddy.app.domain.usecase.RecordedWrite
+import com.baryabuddy.app.tracing.Traces
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.drop
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.filterNotNull
 import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.merge
+import kotlinx.coroutines.flow.onCompletion
+import kotlinx.coroutines.flow.onSubscription
+import kotlinx.coroutines.flow.stateIn
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import java.io.InputStream
+import java.io.OutputStream
 import java.time.LocalDate
 import java.time.ZoneId
-import java.time.ZoneOffset
 
-class BaryaBuddyRepository(private val database: AppDatabase) {
+class BaryaBuddyRepository(
+    private val database: AppDatabase,
+    applicationScope: CoroutineScope,
+    private val backupCheckpoints: BackupCheckpoints,
+    private val syncSink: SyncSink = SyncSink.LocalFileOnly,
+    invalidationWindowMillis: Long = InvalidationCoalescer.DEFAULT_WINDOW_MS
+) {
+
+    // One re-query per burst of writes for the dashboard's Room-backed reads
+    private val invalidations = InvalidationCoalescer(database, invalidationWindowMillis)
+
+    // How many table invalidations were merged away (for diagnostics)
+    val invalidationMetrics: StateFlow<InvalidationMetrics> = invalidations.metrics
+
+    // 🚚 Resumable post-open data migrations (see ChunkedMigration)
+    private val chunkedMigrations = ChunkedMigrationRunner(database)
+
+    // Progress of the data migration currently running, null when none is
+    val migrationProgress: StateFlow<MigrationProgress?> = chunkedMigrations.progress
+
+    // 🔔 Every ledger write made through this repository, as it happens
+    private val _ledgerChanges = MutableSharedFlow<LedgerChange>(extraBufferCapacity = LEDGER_CHANGE_BUFFER)
+    val ledgerChanges: SharedFlow<LedgerChange> = _ledgerChanges.asSharedFlow()
+
+    // Running totals for the active period, patched by every write below
+    private val periodTotalsEngine = IncrementalDailySafeSpend { period ->
+        Traces.asyncSection("Repo.periodTotals.load") {
+            database.dailyTotalDao().getTotalsBetweenOnce(period.startEpochDay, period.endEpochDay)
+        }
+    }
+
+    // Resolves the profile's current budget period; cached until it rolls over
+    private val budgetPeriods = BudgetPeriodCalculator()
+
+    // 🏷️ App-wide category snapshot: one Room observer for the whole process, re-read only
+    // when the categories table changes. null until the first load completes.
+    val categoryRegistry: StateFlow<CategoryRegistry?> = database.categoryDao().getAll()
+        .map { Traces.section("Repo.categoryRegistry.build") { CategoryRegistry(it) } }
+        .stateIn(applicationScope, SharingStarted.Eagerly, null)
+
+    // 👤 The single user_profile row, cached for the whole process. Read-through: loaded once
+    // (AppContent warms it at startup); write-through: saves update it before hitting SQLite.
+    // All profile writes go through this class, so the cache never goes stale.
+    private val profileCache = MutableStateFlow<UserProfile?>(null)
+    private val profileLoadLock = Mutex()
+    @Volatile
+    private var profileLoaded = false
+
+    val userProfile: StateFlow<UserProfile?> = profileCache.asStateFlow()
 
     // Transactions
     fun getAllTransactions(): Flow<List<Transaction>> {
@@ -21,77 +114,289 @@ class BaryaBuddyRepository(private val database: AppDatabase) {
         return database.transactionDao().getRecent(limit)
     }
 
+    // Recent rows with category name/icon/color joined in SQL. Single-row writes are patched
+    // in memory (or ignored when older than the rows shown); only bulk writes, category edits
+    // and rows dropping out of a full list re-query. Changes are taken in coalescing windows,
+    // so a burst of writes is one recompute and one emission, with at most one re-query.
+    // The transactions table itself is not observed: this relies on every ledger write in
+    // this class emitting on _ledgerChanges (see TransactionDao).
+    fun getRecentTransactionRows(limit: Int = 10): Flow<List<TransactionRow>> = flow {
+        val dao = database.transactionDao()
+        var rows: List<TransactionRow>? = null
+        val changes = merge(
+            // Subscribe before the first query so no write can slip in between
+            _ledgerChanges.onSubscription { emit(LedgerChange.Bulk) },
+            invalidations.observe("categories").drop(1).map { LedgerChange.Bulk }
+        )
+        invalidations.batch(changes).collect { batch ->
+            val current = rows
+            val rowChanges = batch.filterIsInstance<LedgerChange.RowChanged>()
+            val patched = if (current != null && rowChanges.size == batch.size) {
+                val registry = categories()
+                Traces.section("Repo.recentRows.patch") {
+                    rowChanges.fold<LedgerChange.RowChanged, List<TransactionRow>?>(current) { acc, change ->
+                        acc?.let { RecentRowsWindow.apply(it, change, limit, registry) }
+                    }
+                }
+            } else {
+                null
+            }
+            val next = patched ?: Traces.asyncSection("Repo.recentRows.query") { dao.getRecentRowsOnce(limit) }
+            if (next !== current) {
+                rows = next
+                emit(next)
+            }
+        }
+    }
+
+    // Full history, keyset-paged; at most HISTORY_MAX_SIZE rows are held in memory
+    fun getTransactionHistory(): Flow<PagingData<TransactionRow>> {
+        return Pager(
+            config = PagingConfig(
+                pageSize = HISTORY_PAGE_SIZE,
+                enablePlaceholders = false,
+                maxSize = HISTORY_MAX_SIZE
+            ),
+            pagingSourceFactory = { TransactionHistoryPagingSource(database) }
+        ).flow
+    }
+
+    // 🔎 Description search. [query] is free text; each word becomes a prefix term and all
+    // must match. Category/date filters are optional (null = any).
+    suspend fun searchTransactions(
+        query: String,
+        categoryId: Int? = null,
+        startDay: Long? = null,
+        endDay: Long? = null,
+        limit: Int = SEARCH_PAGE_SIZE
+    ): List<TransactionRow> {
+        val match = toFtsMatch(query) ?: return emptyList()
+        return Traces.asyncSection("Repo.search") {
+            database.transactionDao().search(match, categoryId, startDay, endDay, limit)
+        }
+    }
+
+    // "jollibee lun" -> "jollibee* lun*". Only letters and digits reach MATCH, so user input
+    // can never form FTS operators or a syntax error.
+    private fun toFtsMatch(query: String): String? {
+        val terms = query.split(Regex("[^\\p{L}\\p{N}]+")).filter { it.isNotEmpty() }
+        if (terms.isEmpty()) return null
+        return terms.joinToString(" ") { "${it.lowercase()}*" }
+    }
+
     suspend fun getTransactionsByMonth(year: Int, month: Int): List<Transaction> {
         val startOfMonth = LocalDate.of(year, month, 1)
-            .atStartOfDay(ZoneId.systemDefault())
-            .toInstant()
-            .toEpochMilli()
-        
-        val startOfNextMonth = LocalDate.of(year, month, 1)
-            .plusMonths(1)
-            .atStartOfDay(ZoneId.systemDefault())
-            .toInstant()
-            .toEpochMilli()
-
-        return database.transactionDao().getByMonth(startOfMonth, startOfNextMonth).first()
+        return Traces.asyncSection("Repo.transactionsByMonth") {
+            database.transactionDao().getByEpochDays(
+                startOfMonth.toEpochDay(),
+                startOfMonth.plusMonths(1).toEpochDay()
+            ).first()
+        }
     }
 
     suspend fun getTotalByMonth(year: Int, month: Int): Double {
         val startOfMonth = LocalDate.of(year, month, 1)
-            .atStartOfDay(ZoneId.systemDefault())
-            .toInstant()
-            .toEpochMilli()
-        
-        val startOfNextMonth = LocalDate.of(year, month, 1)
-            .plusMonths(1)
-            .atStartOfDay(ZoneId.systemDefault())
-            .toInstant()
-            .toEpochMilli()
-
-        val totalCentavos = database.transactionDao().getTotalByMonth(startOfMonth, startOfNextMonth) ?: 0L
+        val totals = Traces.asyncSection("Repo.totalByMonth") {
+            database.dailyTotalDao().getTotalsBetweenOnce(
+                startOfMonth.toEpochDay(),
+                startOfMonth.plusMonths(1).toEpochDay()
+            )
+        }
+        val totalCentavos = totals.incomeCentavos + totals.expenseCentavos
         return totalCentavos / 100.0
     }
 
+    // The profile's budget period containing [date] (resetDay/frequency aware, cached)
+    fun getBudgetPeriod(profile: UserProfile, date: LocalDate = LocalDate.now()): BudgetPeriod {
+        return Traces.section("Repo.budgetPeriod") { budgetPeriods.periodFor(profile, date) }
+    }
+
+    // In-memory totals for the profile's current period. The first load is one indexed range
+    // read over daily_totals; after that only rollover or a resetDay/frequency change reloads.
+    fun getCurrentPeriodTotals(profile: UserProfile, date: LocalDate): Flow<PeriodTotals> = flow {
+        val period = getBudgetPeriod(profile, date)
+        Traces.asyncSection("Repo.periodTotals.ensure") { periodTotalsEngine.ensurePeriod(period) }
+        emitAll(periodTotalsEngine.totals.filterNotNull())
+    }
+
+    // Continues any unfinished data migration; safe to call on every start
+    suspend fun runPendingMigrations() = Traces.asyncSection("Repo.runPendingMigrations") {
+        chunkedMigrations.runPending()
+        // Data migrations may rewrite rows in bulk
+        periodTotalsEngine.invalidate()
+        _ledgerChanges.emit(LedgerChange.Bulk)
+    }
+
     suspend fun addTransaction(transaction: Transaction): Long {
-        return database.transactionDao().insert(transaction)
+        val id = Traces.asyncSection("Repo.addTransaction") {
+            periodTotalsEngine.recordWrite(removed = null, added = transaction) {
+                database.transactionDao().insert(transaction)
+            }
+        }
+        _ledgerChanges.emit(LedgerChange.RowChanged(before = null, after = transaction.copy(id = id)))
+        return id
     }
 
     suspend fun getTransactionById(id: Long): Transaction? {
-        return database.transactionDao().getById(id)
+        return Traces.asyncSection("Repo.getTransactionById") { database.transactionDao().getById(id) }
     }
 
+    // The stored row is read in the same DB transaction as the write and under the totals
+    // engine's lock, so concurrent writes to one row can't subtract the same old amount twice
     suspend fun updateTransaction(transaction: Transaction) {
-        database.transactionDao().update(transaction)
+        val previous = Traces.asyncSection("Repo.updateTransaction") {
+            periodTotalsEngine.recordWrite {
+                database.withTransaction {
+                    val dao = database.transactionDao()
+                    val previous = dao.getById(transaction.id)
+                    if (previous != null) dao.update(transaction)
+                    RecordedWrite(previous, removed = previous, added = transaction.takeIf { previous != null })
+                }
+            }
+        }
+        if (previous != null) {
+            _ledgerChanges.emit(LedgerChange.RowChanged(before = previous, after = transaction))
+        }
     }
 
     suspend fun deleteTransaction(transaction: Transaction) {
-        database.transactionDao().delete(transaction)
+        val removed = Traces.asyncSection("Repo.deleteTransaction") {
+            periodTotalsEngine.recordWrite {
+                database.withTransaction {
+                    val dao = database.transactionDao()
+                    // The stored row, not the caller's copy, is what leaves the totals
+                    val current = dao.getById(transaction.id)
+                    if (current != null) dao.delete(current)
+                    RecordedWrite(current, removed = current, added = null)
+                }
+            }
+        }
+        if (removed != null) {
+            _ledgerChanges.emit(LedgerChange.RowChanged(before = removed, after = null))
+        }
+    }
+
+    // 📥 Streams a CSV into the ledger in batches. Bulk inserts bypass the per-row deltas,
+    // so the running period totals are reloaded once the import finishes.
+    fun importTransactionsCsv(openInput: () -> InputStream): Flow<ImportProgress> {
+        return CsvTransactionImporter(database).import(openInput)
+            .onCompletion {
+                periodTotalsEngine.invalidate()
+                _ledgerChanges.emit(LedgerChange.Bulk)
+            }
+    }
+
+    // 🧪 Debug/perf only: appends [count] reproducible synthetic transactions ending today
+    suspend fun generateStressData(count: Int, seed: Long = SyntheticLedgerGenerator.DEFAULT_SEED): Int {
+        val generator = SyntheticLedgerGenerator(seed = seed, endDate = LocalDate.now(), zone = ZoneId.systemDefault())
+        return try {
+            Traces.asyncSection("Repo.generateStressData") { generator.writeTo(database, count) }
+        } finally {
+            // Raw batched inserts bypass the per-row deltas, like an import
+            periodTotalsEngine.invalidate()
+            _ledgerChanges.emit(LedgerChange.Bulk)
+        }
+    }
+
+    // 📤 Streams the whole ledger to [openOutput] without loading it into memory
+    fun exportTransactions(openOutput: () -> OutputStream, format: ExportFormat): Flow<ExportProgress> {
+        return TransactionExporter(database).export(openOutput, format)
+    }
+
+    // 🔄 Change data capture: every change_log entry after [afterSeq], oldest first, with the
+    // row's current state. Read in pages, so any backlog streams in constant memory.
+    fun changesSince(afterSeq: Long): Flow<TransactionDelta> = flow {
+        val dao = database.changeLogDao()
+        var cursor = afterSeq
+        while (true) {
+            val page = Traces.asyncSection("Repo.changesSince.page") { dao.getChangesAfter(cursor, CHANGE_PAGE_SIZE) }
+            page.forEach { emit(it) }
+            if (page.size < CHANGE_PAGE_SIZE) break
+            cursor = page.last().seq
+        }
     }
 
-    // Categories
+    // 💾 Appends everything since the last checkpoint to the local backup file, hands it to the
+    // sync sink, then compacts change_log up to what is both fsynced and acknowledged. A failed
+    // append or send throws before anything is dropped.
+    suspend fun backUpAndCompact(): BackupResult {
+        val written = Traces.asyncSection("Repo.backup.append") {
+            IncrementalBackupWriter(backupCheckpoints).append(backupCheckpoints.file) { afterSeq -> changesSince(afterSeq) }
+        }
+        val localSeq = backupCheckpoints.localCheckpointSeq
+        val ackedSeq = Traces.asyncSection("Repo.backup.send") { syncSink.send(backupCheckpoints.file, localSeq) }
+        // Acks never move backwards, and never past what is actually in the file
+        if (ackedSeq > backupCheckpoints.sinkAckedSeq) {
+            backupCheckpoints.sinkAckedSeq = minOf(ackedSeq, localSeq)
+        }
+        val compacted = compactChangeLog()
+        return BackupResult(written, compacted)
+    }
+
+    // 🧹 Drops change_log entries at or below both checkpoints; returns how many were removed
+    private suspend fun compactChangeLog(): Int {
+        return Traces.asyncSection("Repo.compactChangeLog") {
+            database.changeLogDao().deleteUpTo(minOf(backupCheckpoints.localCheckpointSeq, backupCheckpoints.sinkAckedSeq))
+        }
+    }
+
+    // Categories (served from categoryRegistry - no DB read once it's loaded)
     fun getCategories(): Flow<List<Category>> {
-        return database.categoryDao().getAll()
+        return categoryRegistry.filterNotNull().map { it.all }
     }
 
     suspend fun getCategoryById(id: Long): Category? {
-        return database.categoryDao().getById(id)
+        return categories()[id]
+    }
+
+    // The loaded registry, waiting for the first load only on a cold start
+    suspend fun categories(): CategoryRegistry {
+        return categoryRegistry.filterNotNull().first()
     }
 
-    // User Profile
-    fun getUserProfile(): Flow<UserProfile?> {
-        return database.userProfileDao().getProfile()
+    // User Profile (served from profileCache)
+    fun getUserProfile(): Flow<UserProfile?> = flow {
+        getUserProfileOnce()
+        emitAll(profileCache)
     }
 
     suspend fun getUserProfileOnce(): UserProfile? {
-        return database.userProfileDao().getProfileOnce()
+        if (profileLoaded) return profileCache.value
+        return profileLoadLock.withLock {
+            if (!profileLoaded) {
+                profileCache.value = Traces.asyncSection("Repo.profile.load") { database.userProfileDao().getProfileOnce() }
+                profileLoaded = true
+            }
+            profileCache.value
+        }
     }
 
     suspend fun updateUserProfile(profile: UserProfile) {
-        database.userProfileDao().update(profile)
+        writeProfile(profile) { database.userProfileDao().update(profile) }
     }
 
     suspend fun insertUserProfile(profile: UserProfile) {
-        database.userProfileDao().insert(profile)
+        writeProfile(profile) { database.userProfileDao().insert(profile) }
+    }
+
+    // Observers see the new profile at once; a failed write puts the old one back
+    private suspend fun writeProfile(profile: UserProfile, write: suspend () -> Unit) {
+        getUserProfileOnce()
+        val previous = profileCache.value
+        profileCache.value = profile
+        try {
+            Traces.asyncSection("Repo.profile.write") { write() }
+        } catch (e: Exception) {
+            profileCache.compareAndSet(profile, previous)
+            throw e
+        }
     }
-}
 
+    companion object {
+        private const val HISTORY_PAGE_SIZE = 30
+        private const val HISTORY_MAX_SIZE = HISTORY_PAGE_SIZE * 5
+        private const val SEARCH_PAGE_SIZE = 50
+        private const val LEDGER_CHANGE_BUFFER = 64
+        private const val CHANGE_PAGE_SIZE = 500
+    }
+}
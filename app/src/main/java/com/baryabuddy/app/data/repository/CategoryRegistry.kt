@@ -0,0 +1,25 @@
+package com.baryabuddy.app.data.repository
+
+import com.baryabuddy.app.data.database.entities.Category
+
+/**
+ * Immutable snapshot of the categories table with O(1) lookup by id.
+ *
+ * Category ids are small autoincrement values, so a plain array indexed by id is both the
+ * fastest and the smallest map here. A new snapshot is built only when Room reports a
+ * change to the categories table.
+ */
+class CategoryRegistry(val all: List<Category>) {
+
+    private val byId: Array<Category?> = arrayOfNulls<Category>(
+        ((all.maxOfOrNull { it.id } ?: -1L) + 1).toInt()
+    ).also { slots ->
+        all.forEach { slots[it.id.toInt()] = it }
+    }
+
+    operator fun get(id: Long): Category? {
+        return if (id in byId.indices) byId[id.toInt()] else null
+    }
+
+    operator fun get(id: Int): Category? = get(id.toLong())
+}
@@ -0,0 +1,95 @@
+package com.baryabuddy.app.data.repository
+
+import androidx.room.InvalidationTracker
+import com.baryabuddy.app.data.database.AppDatabase
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.launch
+
+// Counts both Room invalidations (observe) and ledger changes (batch)
+data class InvalidationMetrics(
+    val invalidations: Long = 0,
+    val emissions: Long = 0
+) {
+    // Invalidations that didn't cause a re-query of their own
+    val merged: Long
+        get() = invalidations - emissions
+}
+
+/**
+ * Turns Room table invalidations into at most one "re-query now" signal per burst.
+ *
+ * The first invalidation opens a [windowMillis] window (a frame by default). Everything
+ * that arrives before it closes - a run of deletes, each import batch, seeding - is folded
+ * into a single emission. A slow collector adds its own back-pressure: while it is still
+ * re-querying, further invalidations wait as one pending signal.
+ */
+class InvalidationCoalescer(
+    private val database: AppDatabase,
+    private val windowMillis: Long = DEFAULT_WINDOW_MS
+) {
+    private val _metrics = MutableStateFlow(InvalidationMetrics())
+    val metrics: StateFlow<InvalidationMetrics> = _metrics.asStateFlow()
+
+    // Emits once on collection (initial load), then once per burst of changes to [tables]
+    fun observe(vararg tables: String): Flow<Unit> = callbackFlow {
+        val pending = Channel<Unit>(Channel.CONFLATED)
+        val observer = object : InvalidationTracker.Observer(tables) {
+            override fun onInvalidated(tables: Set<String>) {
+                _metrics.update { it.copy(invalidations = it.invalidations + 1) }
+                pending.trySend(Unit)
+            }
+        }
+        database.invalidationTracker.addObserver(observer)
+
+        send(Unit)
+        launch {
+            for (signal in pending) {
+                delay(windowMillis)
+                pending.tryReceive() // folded into this emission
+                _metrics.update { it.copy(emissions = it.emissions + 1) }
+                send(Unit)
+            }
+        }
+
+        awaitClose { database.invalidationTracker.removeObserver(observer) }
+    }
+
+    // Same windowing for change events that don't come from Room (the repository's ledger
+    // bus): the first one passes straight through (initial load), then everything arriving
+    // within one window, or while the collector is busy, is emitted as a single list
+    fun <T> batch(changes: Flow<T>): Flow<List<T>> = channelFlow {
+        val pending = Channel<T>(Channel.UNLIMITED)
+        launch {
+            changes.collect { pending.send(it) }
+            pending.close()
+        }
+
+        var initial = true
+        for (first in pending) {
+            val batch = arrayListOf(first)
+            if (!initial) delay(windowMillis)
+            while (true) {
+                batch += pending.tryReceive().getOrNull() ?: break
+            }
+            if (!initial) {
+                _metrics.update { it.copy(invalidations = it.invalidations + batch.size, emissions = it.emissions + 1) }
+            }
+            initial = false
+            send(batch)
+        }
+    }
+
+    companion object {
+        // ~one frame at 60 Hz
+        const val DEFAULT_WINDOW_MS = 16L
+    }
+}
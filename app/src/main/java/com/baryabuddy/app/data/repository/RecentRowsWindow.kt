@@ -0,0 +1,72 @@
+package com.baryabuddy.app.data.repository
+
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.domain.model.LedgerChange
+import com.baryabuddy.app.domain.model.TransactionRow
+
+/**
+ * Applies a single-row [LedgerChange] to the "newest N" list in memory.
+ *
+ * The window is everything at or after the oldest row shown (all rows while the list isn't
+ * full). A write whose old and new positions are both outside the window is ignored; one
+ * inside it is patched in place. Only when a row leaves a full window - so the next-older row
+ * must come in from the database - does the caller have to re-query.
+ *
+ * Patching is idempotent: any row already carrying the old or new id is dropped before the
+ * new state is placed, so a change delivered twice (or racing the initial query) can't
+ * duplicate a row.
+ */
+internal object RecentRowsWindow {
+
+    // Same order as getRecentRowsOnce: dateUtcMillis DESC, createdAt DESC, id DESC
+    private val newestFirst = compareByDescending<TransactionRow> { it.dateUtcMillis }
+        .thenByDescending { it.createdAt }
+        .thenByDescending { it.id }
+
+    /**
+     * @return the patched list, the same [rows] instance if the change is outside the window,
+     * or null if the list can't be completed from memory.
+     */
+    fun apply(
+        rows: List<TransactionRow>,
+        change: LedgerChange.RowChanged,
+        limit: Int,
+        categories: CategoryRegistry
+    ): List<TransactionRow>? {
+        val wasFull = rows.size >= limit
+        val oldest = rows.lastOrNull()
+        val touchedIds = setOfNotNull(change.before?.id, change.after?.id)
+        val touchesWindow = rows.any { it.id in touchedIds }
+        val added = change.after?.toRow(categories)
+        val addedInWindow = added != null && (!wasFull || oldest == null || newestFirst.compare(added, oldest) <= 0)
+
+        if (!touchesWindow && !addedInWindow) return rows
+
+        val patched = rows.filterNot { it.id in touchedIds }.toMutableList()
+        if (added != null && addedInWindow) {
+            val at = patched.binarySearch(added, newestFirst).let { if (it < 0) -(it + 1) else it }
+            patched.add(at, added)
+        }
+
+        return when {
+            patched.size > limit -> patched.subList(0, limit).toList()
+            patched.size < limit && wasFull -> null // a row fell out; the next one is only in SQLite
+            else -> patched
+        }
+    }
+
+    private fun Transaction.toRow(categories: CategoryRegistry): TransactionRow {
+        val category = categoryId?.let { categories[it] }
+        return TransactionRow(
+            id = id,
+            amountCentavos = amountCentavos,
+            categoryId = categoryId,
+            description = description,
+            dateUtcMillis = dateUtcMillis,
+            createdAt = createdAt,
+            categoryName = category?.name,
+            categoryIcon = category?.icon,
+            categoryColor = category?.color
+        )
+    }
+}
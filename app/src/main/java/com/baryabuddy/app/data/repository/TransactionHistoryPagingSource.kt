@@ -0,0 +1,80 @@
+package com.baryabuddy.app.data.repository
+
+import androidx.paging.PagingSource
+import androidx.paging.PagingState
+import androidx.room.InvalidationTracker
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.domain.model.TransactionRow
+
+// Position of a row in the (dateUtcMillis DESC, createdAt DESC, id DESC) history order
+data class TransactionCursor(
+    val dateUtcMillis: Long,
+    val createdAt: Long,
+    val id: Long
+)
+
+/**
+ * Keyset-paged transaction history (newest first).
+ *
+ * Every page is a "seek past this cursor" query on the (dateUtcMillis, createdAt) index, so loading
+ * page 500 costs the same as loading page 1. Supports prepend as well as append so the
+ * Pager can drop pages once maxSize is reached and reload them when scrolling back.
+ */
+class TransactionHistoryPagingSource(
+    private val database: AppDatabase
+) : PagingSource<TransactionCursor, TransactionRow>() {
+
+    // Rebuild the source whenever the ledger or the categories change
+    private val observer = object : InvalidationTracker.Observer(arrayOf("transactions", "categories")) {
+        override fun onInvalidated(tables: Set<String>) {
+            invalidate()
+        }
+    }
+
+    init {
+        database.invalidationTracker.addObserver(observer)
+        registerInvalidatedCallback {
+            database.invalidationTracker.removeObserver(observer)
+        }
+    }
+
+    override suspend fun load(params: LoadParams<TransactionCursor>): LoadResult<TransactionCursor, TransactionRow> {
+        return try {
+            val dao = database.transactionDao()
+            val key = params.key
+            val rows = when {
+                key == null -> dao.getRecentRowsOnce(params.loadSize)
+                params is LoadParams.Refresh -> dao.getPageFrom(key.dateUtcMillis, key.createdAt, key.id, params.loadSize)
+                params is LoadParams.Append -> dao.getPageBefore(key.dateUtcMillis, key.createdAt, key.id, params.loadSize)
+                else -> dao.getPageAfter(key.dateUtcMillis, key.createdAt, key.id, params.loadSize).asReversed()
+            }
+
+            // Only a short page in a given direction means that end of the ledger was reached
+            val reachedEnd = rows.size < params.loadSize
+            LoadResult.Page(
+                data = rows,
+                prevKey = when {
+                    rows.isEmpty() || key == null -> null
+                    params is LoadParams.Prepend && reachedEnd -> null
+                    else -> rows.first().toCursor()
+                },
+                nextKey = when {
+                    rows.isEmpty() -> null
+                    params !is LoadParams.Prepend && reachedEnd -> null
+                    else -> rows.last().toCursor()
+                }
+            )
+        } catch (e: Exception) {
+            LoadResult.Error(e)
+        }
+    }
+
+    // Restart from the row the user is looking at instead of jumping back to the top
+    override fun getRefreshKey(state: PagingState<TransactionCursor, TransactionRow>): TransactionCursor? {
+        return state.anchorPosition
+            ?.let { state.closestItemToPosition(it) }
+            ?.toCursor()
+    }
+
+    private fun TransactionRow.toCursor() = TransactionCursor(dateUtcMillis, createdAt, id)
+}
@@ -0,0 +1,36 @@
+package com.baryabuddy.app.data.transfer
+
+import android.content.Context
+import java.io.File
+
+// ✅ Checkpoints of the incremental backup. [localCheckpointSeq] is the highest change_log seq
+// fsynced into [file] on this device; [sinkAckedSeq] is the highest one the SyncSink has
+// acknowledged. change_log entries may only be compacted up to the lower of the two.
+class BackupCheckpoints(context: Context) {
+
+    private val prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+
+    // JSON Lines file the backup appends to (app-private storage)
+    val file: File = File(context.filesDir, BACKUP_FILE)
+
+    var localCheckpointSeq: Long
+        get() = prefs.getLong(KEY_CHECKPOINT_SEQ, 0L)
+        set(value) {
+            // commit(), not apply(): the checkpoint must not run ahead of what survives a crash
+            prefs.edit().putLong(KEY_CHECKPOINT_SEQ, value).commit()
+        }
+
+    var sinkAckedSeq: Long
+        get() = prefs.getLong(KEY_SINK_ACKED_SEQ, 0L)
+        set(value) {
+            prefs.edit().putLong(KEY_SINK_ACKED_SEQ, value).commit()
+        }
+
+    companion object {
+        private const val PREFS_NAME = "baryabuddy_backup"
+        // Stored under its original key so existing checkpoints carry over
+        private const val KEY_CHECKPOINT_SEQ = "acked_seq"
+        private const val KEY_SINK_ACKED_SEQ = "sink_acked_seq"
+        private const val BACKUP_FILE = "backup/ledger-changes.jsonl"
+    }
+}
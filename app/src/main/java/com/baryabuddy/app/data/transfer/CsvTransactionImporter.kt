@@ -0,0 +1,211 @@
+package com.baryabuddy.app.data.transfer
+
+import androidx.room.withTransaction
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.domain.model.LedgerDate
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.launch
+import java.io.InputStream
+import java.math.BigDecimal
+import java.math.RoundingMode
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.format.DateTimeFormatter
+import java.time.format.DateTimeParseException
+
+data class ImportProgress(
+    val rowsRead: Long = 0,
+    val rowsImported: Long = 0,
+    val rowsRejected: Long = 0,
+    val done: Boolean = false
+)
+
+/**
+ * Streams a spreadsheet / bank-statement CSV into the ledger.
+ *
+ * Three coroutines joined by bounded channels: read lines -> parse & convert to centavos ->
+ * insert in batches of [batchSize], each batch in its own transaction. The channels hold at
+ * most one batch each, so memory depends on [batchSize], never on the file size.
+ *
+ * Recognised header columns (case-insensitive, any order): `date` and `amount` are required;
+ * `category`, `description` and `type` (income/expense) are optional. Without a `type`
+ * column, negative amounts are expenses and positive ones income, like a bank statement.
+ * Expenses whose category name doesn't match a known category go to "Other".
+ * Quoted fields are supported; fields spanning multiple lines are not.
+ */
+class CsvTransactionImporter(
+    private val database: AppDatabase,
+    private val batchSize: Int = DEFAULT_BATCH_SIZE
+) {
+
+    fun import(openInput: () -> InputStream): Flow<ImportProgress> = channelFlow {
+        val lines = Channel<String>(capacity = batchSize)
+        val parsed = Channel<Transaction?>(capacity = batchSize) // null = rejected row
+
+        val categoryIds = database.categoryDao().getAllOnce().associate { it.name.lowercase() to it.id.toInt() }
+        val fallbackCategoryId = categoryIds["other"] ?: categoryIds.values.firstOrNull()
+
+        // Stage 1: read
+        launch(Dispatchers.IO) {
+            openInput().bufferedReader().useLines { sequence ->
+                sequence.forEach { lines.send(it) }
+            }
+            lines.close()
+        }
+
+        // Stage 2: parse / validate / convert
+        launch(Dispatchers.Default) {
+            var header: Map<String, Int>? = null
+            for (line in lines) {
+                if (line.isBlank()) continue
+                val fields = splitCsvLine(line)
+                val columns = header
+                if (columns == null) {
+                    // Throwing here cancels the whole pipeline and fails the returned Flow
+                    val names = fields.withIndex().associate { (i, name) -> name.trim().lowercase() to i }
+                    require("date" in names && "amount" in names) {
+                        "CSV header must contain 'date' and 'amount' columns"
+                    }
+                    header = names
+                    continue
+                }
+                parsed.send(toTransaction(fields, columns, categoryIds, fallbackCategoryId))
+            }
+            parsed.close()
+        }
+
+        // Stage 3: batched insert
+        var progress = ImportProgress()
+        val batch = ArrayList<Transaction>(batchSize)
+        suspend fun flush() {
+            if (batch.isEmpty()) return
+            database.withTransaction {
+                database.transactionDao().insertAll(batch)
+            }
+            progress = progress.copy(rowsImported = progress.rowsImported + batch.size)
+            batch.clear()
+            send(progress)
+        }
+
+        for (transaction in parsed) {
+            progress = progress.copy(rowsRead = progress.rowsRead + 1)
+            if (transaction == null) {
+                progress = progress.copy(rowsRejected = progress.rowsRejected + 1)
+            } else {
+                batch.add(transaction)
+                if (batch.size >= batchSize) flush()
+            }
+        }
+        flush()
+        send(progress.copy(done = true))
+    }
+
+    private fun toTransaction(
+        fields: List<String>,
+        columns: Map<String, Int>,
+        categoryIds: Map<String, Int>,
+        fallbackCategoryId: Int?
+    ): Transaction? {
+        fun field(name: String): String? = columns[name]?.let { fields.getOrNull(it) }?.trim()?.takeIf { it.isNotEmpty() }
+
+        val date = field("date")?.let { parseDate(it) } ?: return null
+        val signedCentavos = field("amount")?.let { parseCentavos(it) } ?: return null
+        if (signedCentavos == 0L) return null
+
+        val isIncome = when (field("type")?.lowercase()) {
+            "income", "credit" -> true
+            "expense", "debit" -> false
+            else -> signedCentavos > 0
+        }
+        val categoryId = if (isIncome) {
+            null
+        } else {
+            field("category")?.lowercase()?.let { categoryIds[it] } ?: fallbackCategoryId ?: return null
+        }
+
+        return Transaction(
+            amountCentavos = kotlin.math.abs(signedCentavos),
+            categoryId = categoryId,
+            description = field("description"),
+            dateUtcMillis = LedgerDate.utcMillis(date),
+            epochDay = LedgerDate.epochDay(date)
+        )
+    }
+
+    companion object {
+        const val DEFAULT_BATCH_SIZE = 500
+
+        private val DATE_TIME_FORMATS = listOf(
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]"),
+            DateTimeFormatter.ofPattern("M/d/yyyy H:mm[:ss]")
+        )
+        private val DATE_FORMATS = listOf(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("M/d/yyyy")
+        )
+
+        internal fun parseDate(value: String): LocalDateTime? {
+            DATE_TIME_FORMATS.forEach { format ->
+                try {
+                    return LocalDateTime.parse(value, format)
+                } catch (e: DateTimeParseException) {
+                    // try the next format
+                }
+            }
+            DATE_FORMATS.forEach { format ->
+                try {
+                    return LocalDate.parse(value, format).atStartOfDay()
+                } catch (e: DateTimeParseException) {
+                    // try the next format
+                }
+            }
+            return null
+        }
+
+        // "₱1,234.50" / "-250" / "(250.00)" -> signed centavos, rounded half-up
+        internal fun parseCentavos(value: String): Long? {
+            var cleaned = value.filter { it.isDigit() || it == '.' || it == '-' || it == '(' }
+            val negative = cleaned.startsWith("-") || cleaned.startsWith("(")
+            cleaned = cleaned.trimStart('-', '(')
+            return try {
+                val centavos = BigDecimal(cleaned).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact()
+                if (negative) -centavos else centavos
+            } catch (e: NumberFormatException) {
+                null
+            } catch (e: ArithmeticException) {
+                null
+            }
+        }
+
+        // RFC 4180 field splitting for a single line
+        internal fun splitCsvLine(line: String): List<String> {
+            val fields = ArrayList<String>()
+            val current = StringBuilder()
+            var inQuotes = false
+            var i = 0
+            while (i < line.length) {
+                val c = line[i]
+                when {
+                    inQuotes && c == '"' && i + 1 < line.length && line[i + 1] == '"' -> {
+                        current.append('"')
+                        i++
+                    }
+                    c == '"' -> inQuotes = !inQuotes
+                    c == ',' && !inQuotes -> {
+                        fields.add(current.toString())
+                        current.setLength(0)
+                    }
+                    else -> current.append(c)
+                }
+                i++
+            }
+            fields.add(current.toString())
+            return fields
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.baryabuddy.app.data.transfer
+
+import java.io.File
+
+/**
+ * Destination the backup file is handed to once its lines are fsynced locally.
+ *
+ * [send] gets the backup file and the local checkpoint (the highest seq in it) and returns the
+ * highest seq the destination has durably accepted, which may be lower, e.g. when an upload
+ * only got part of the way. change_log is only compacted up to that acknowledged seq, so
+ * anything the destination has not confirmed can still be sent again from the log.
+ */
+fun interface SyncSink {
+    suspend fun send(file: File, upToSeq: Long): Long
+
+    companion object {
+        // 📁 No remote destination: the local file is the backup, so it acknowledges everything in it
+        val LocalFileOnly = SyncSink { _, upToSeq -> upToSeq }
+    }
+}
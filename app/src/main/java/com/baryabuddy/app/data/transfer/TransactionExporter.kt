@@ -0,0 +1,190 @@
+package com.baryabuddy.app.data.transfer
+
+import android.database.Cursor
+import androidx.sqlite.db.SimpleSQLiteQuery
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.util.JsonStrings
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import java.io.OutputStream
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.time.format.DateTimeFormatter
+
+enum class ExportFormat { CSV, JSON }
+
+data class ExportProgress(
+    val rowsWritten: Long = 0,
+    val totalRows: Long = 0,
+    val done: Boolean = false
+)
+
+/**
+ * Writes the whole ledger to an OutputStream straight from a raw Cursor, oldest first.
+ *
+ * No Transaction (or any per-row object) is created: columns are read as primitives and
+ * appended to one reused StringBuilder. The Cursor's window and the buffered writer are the
+ * only buffers, so memory stays flat whatever the ledger size. Rows are ordered by
+ * (dateUtcMillis, createdAt, id) - the order of the (dateUtcMillis, createdAt) index - so SQLite never sorts.
+ *
+ * The CSV columns match what [CsvTransactionImporter] reads, so an export can be re-imported.
+ */
+class TransactionExporter(
+    private val database: AppDatabase,
+    private val zone: ZoneId = ZoneId.systemDefault()
+) {
+
+    fun export(output: () -> OutputStream, format: ExportFormat): Flow<ExportProgress> = flow {
+        val totalRows = database.query(SimpleSQLiteQuery("SELECT COUNT(*) FROM transactions"), null).use {
+            if (it.moveToFirst()) it.getLong(0) else 0L
+        }
+        emit(ExportProgress(totalRows = totalRows))
+
+        var written = 0L
+        output().bufferedWriter().use { writer ->
+            database.query(SimpleSQLiteQuery(EXPORT_QUERY), null).use { cursor ->
+                val line = StringBuilder(256)
+                val dates = DateFormatter(zone)
+                if (format == ExportFormat.CSV) {
+                    writer.write("date,amount,type,category,description\n")
+                } else {
+                    writer.write("[")
+                }
+
+                while (cursor.moveToNext()) {
+                    line.setLength(0)
+                    if (format == ExportFormat.CSV) {
+                        appendCsvRow(line, cursor, dates)
+                    } else {
+                        if (written > 0) line.append(',')
+                        appendJsonRow(line, cursor, dates)
+                    }
+                    writer.append(line)
+                    written++
+
+                    if (written % PROGRESS_EVERY == 0L) {
+                        currentCoroutineContext().ensureActive()
+                        emit(ExportProgress(written, totalRows))
+                    }
+                }
+
+                if (format == ExportFormat.JSON) {
+                    writer.write("\n]\n")
+                }
+            }
+        }
+        emit(ExportProgress(written, totalRows, done = true))
+    }.flowOn(Dispatchers.IO)
+
+    private fun appendCsvRow(line: StringBuilder, cursor: Cursor, dates: DateFormatter) {
+        val isIncome = cursor.isNull(COL_CATEGORY_ID)
+        dates.append(line, cursor.getLong(COL_DATE))
+        line.append(',')
+        appendPesos(line, cursor.getLong(COL_AMOUNT))
+        line.append(',').append(if (isIncome) "income" else "expense").append(',')
+        if (!cursor.isNull(COL_CATEGORY_NAME)) appendCsvField(line, cursor.getString(COL_CATEGORY_NAME))
+        line.append(',')
+        if (!cursor.isNull(COL_DESCRIPTION)) appendCsvField(line, cursor.getString(COL_DESCRIPTION))
+        line.append('\n')
+    }
+
+    private fun appendJsonRow(line: StringBuilder, cursor: Cursor, dates: DateFormatter) {
+        val isIncome = cursor.isNull(COL_CATEGORY_ID)
+        line.append("\n{\"id\":").append(cursor.getLong(COL_ID))
+        line.append(",\"date\":\"")
+        dates.append(line, cursor.getLong(COL_DATE))
+        line.append("\",\"amountCentavos\":").append(cursor.getLong(COL_AMOUNT))
+        line.append(",\"type\":\"").append(if (isIncome) "income" else "expense").append('"')
+        line.append(",\"categoryId\":")
+        if (isIncome) line.append("null") else line.append(cursor.getLong(COL_CATEGORY_ID))
+        line.append(",\"category\":")
+        JsonStrings.append(line, if (cursor.isNull(COL_CATEGORY_NAME)) null else cursor.getString(COL_CATEGORY_NAME))
+        line.append(",\"description\":")
+        JsonStrings.append(line, if (cursor.isNull(COL_DESCRIPTION)) null else cursor.getString(COL_DESCRIPTION))
+        line.append('}')
+    }
+
+    /**
+     * Formats UTC epoch millis as local ISO "yyyy-MM-ddTHH:mm:ss". Rows arrive sorted by date,
+     * so the day's boundaries and its "yyyy-MM-dd" prefix are worked out once per day and the
+     * time of day is plain arithmetic. Days with a DST shift fall back to java.time.
+     */
+    private class DateFormatter(private val zone: ZoneId) {
+        private var dayStart = Long.MAX_VALUE
+        private var dayEnd = Long.MIN_VALUE
+        private var dayPrefix = ""
+        private var regularDay = true
+
+        fun append(out: StringBuilder, millis: Long) {
+            if (millis < dayStart || millis >= dayEnd) {
+                val day = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate()
+                dayStart = day.atStartOfDay(zone).toInstant().toEpochMilli()
+                dayEnd = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli()
+                dayPrefix = day.toString()
+                regularDay = dayEnd - dayStart == MILLIS_PER_DAY
+            }
+            if (!regularDay) {
+                val local = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone).withNano(0)
+                // ISO_LOCAL_DATE_TIME, not toString(), which drops ":00" seconds
+                out.append(local.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                return
+            }
+            val secondOfDay = (millis - dayStart) / 1000
+            out.append(dayPrefix).append('T')
+            appendTwoDigits(out, secondOfDay / 3600)
+            out.append(':')
+            appendTwoDigits(out, (secondOfDay / 60) % 60)
+            out.append(':')
+            appendTwoDigits(out, secondOfDay % 60)
+        }
+
+        private fun appendTwoDigits(out: StringBuilder, value: Long) {
+            if (value < 10) out.append('0')
+            out.append(value)
+        }
+    }
+
+    companion object {
+        private const val PROGRESS_EVERY = 1_000L
+        private const val MILLIS_PER_DAY = 86_400_000L
+
+        private const val EXPORT_QUERY =
+            "SELECT t.id, t.dateUtcMillis, t.amountCentavos, t.categoryId, c.name, t.description " +
+                "FROM transactions t LEFT JOIN categories c ON c.id = t.categoryId " +
+                "ORDER BY t.dateUtcMillis, t.createdAt, t.id"
+        private const val COL_ID = 0
+        private const val COL_DATE = 1
+        private const val COL_AMOUNT = 2
+        private const val COL_CATEGORY_ID = 3
+        private const val COL_CATEGORY_NAME = 4
+        private const val COL_DESCRIPTION = 5
+
+        // Centavos -> "1234.50" with integer math only
+        private fun appendPesos(out: StringBuilder, centavos: Long) {
+            out.append(centavos / 100).append('.')
+            val cents = centavos % 100
+            if (cents < 10) out.append('0')
+            out.append(cents)
+        }
+
+        private fun appendCsvField(out: StringBuilder, value: String) {
+            val needsQuotes = value.any { it == ',' || it == '"' || it == '\n' || it == '\r' }
+            if (!needsQuotes) {
+                out.append(value)
+                return
+            }
+            out.append('"')
+            value.forEach { c ->
+                if (c == '"') out.append('"')
+                // The importer reads one record per line
+                out.append(if (c == '\n' || c == '\r') ' ' else c)
+            }
+            out.append('"')
+        }
+    }
+}
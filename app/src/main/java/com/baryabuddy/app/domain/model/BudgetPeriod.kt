@@ -0,0 +1,33 @@
+package com.baryabuddy.app.domain.model
+
+import java.time.LocalDate
+import java.time.temporal.ChronoUnit
+
+// 📅 One budget cycle: [start, endExclusive) in local dates
+data class BudgetPeriod(
+    val start: LocalDate,
+    val endExclusive: LocalDate
+) {
+    val lengthInDays: Int
+        get() = ChronoUnit.DAYS.between(start, endExclusive).toInt()
+
+    // Inclusive of today, like the original month logic
+    fun daysRemaining(today: LocalDate): Int {
+        return ChronoUnit.DAYS.between(today, endExclusive).toInt()
+    }
+
+    operator fun contains(date: LocalDate): Boolean {
+        return date >= start && date < endExclusive
+    }
+
+    // Boundaries as stored in transactions.epochDay / daily_totals.epochDay
+    val startEpochDay: Long
+        get() = start.toEpochDay()
+
+    val endEpochDay: Long
+        get() = endExclusive.toEpochDay()
+
+    fun containsEpochDay(epochDay: Long): Boolean {
+        return epochDay >= startEpochDay && epochDay < endEpochDay
+    }
+}
@@ -0,0 +1,36 @@
+package com.baryabuddy.app.domain.model
+
+import com.baryabuddy.app.data.database.entities.Transaction
+
+// 🔔 What a repository write did to the ledger, so range-scoped observers can tell whether
+// it concerns them without re-querying
+sealed class LedgerChange {
+
+    // One row inserted (before == null), updated, or deleted (after == null)
+    data class RowChanged(
+        val before: Transaction?,
+        val after: Transaction?
+    ) : LedgerChange() {
+        val id: Long
+            get() = after?.id ?: before?.id ?: 0L
+
+        val oldDateUtcMillis: Long?
+            get() = before?.dateUtcMillis
+
+        val newDateUtcMillis: Long?
+            get() = after?.dateUtcMillis
+
+        // Signed change in centavos, income positive and expenses negative
+        val amountDeltaCentavos: Long
+            get() = signed(after) - signed(before)
+
+        private fun signed(transaction: Transaction?): Long = when {
+            transaction == null -> 0L
+            transaction.categoryId == null -> transaction.amountCentavos
+            else -> -transaction.amountCentavos
+        }
+    }
+
+    // Many rows at once (e.g. a CSV import): observers must re-query
+    object Bulk : LedgerChange()
+}
@@ -0,0 +1,29 @@
+package com.baryabuddy.app.domain.model
+
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneId
+
+// 📅 The only place transactions' stored dates meet java.time. Queries, periods and the
+// Daily Safe Spend stay on plain Longs; LocalDateTime is built at the edges (forms, list
+// items, CSV parsing) and nowhere else.
+object LedgerDate {
+
+    fun utcMillis(dateTime: LocalDateTime, zone: ZoneId = ZoneId.systemDefault()): Long {
+        return dateTime.atZone(zone).toInstant().toEpochMilli()
+    }
+
+    // The wall-clock day the user picked, fixed at write time
+    fun epochDay(dateTime: LocalDateTime): Long {
+        return dateTime.toLocalDate().toEpochDay()
+    }
+
+    fun toLocalDateTime(utcMillis: Long, zone: ZoneId = ZoneId.systemDefault()): LocalDateTime {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(utcMillis), zone)
+    }
+
+    fun toLocalDate(epochDay: Long): LocalDate {
+        return LocalDate.ofEpochDay(epochDay)
+    }
+}
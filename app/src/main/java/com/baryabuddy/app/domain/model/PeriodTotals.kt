@@ -0,0 +1,11 @@
+package com.baryabuddy.app.domain.model
+
+// 💰 Both sums are in Centavos, aggregated by SQLite for a [start, end) range
+data class PeriodTotals(
+    val incomeCentavos: Long = 0L,
+    val expenseCentavos: Long = 0L
+) {
+    // Income refills the bucket, expenses drain it
+    val netSpentCentavos: Long
+        get() = expenseCentavos - incomeCentavos
+}
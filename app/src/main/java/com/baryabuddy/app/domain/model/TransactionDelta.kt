@@ -0,0 +1,14 @@
+package com.baryabuddy.app.domain.model
+
+import androidx.room.Embedded
+import com.baryabuddy.app.data.database.entities.Transaction
+
+// 🔄 One change_log entry joined with the row's current state. [transaction] is null when
+// the row no longer exists (deleted, possibly after later log entries were written).
+data class TransactionDelta(
+    val seq: Long,
+    val op: String,
+    val rowId: Long,
+    @Embedded(prefix = "t_")
+    val transaction: Transaction?
+)
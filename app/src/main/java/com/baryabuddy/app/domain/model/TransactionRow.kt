@@ -0,0 +1,19 @@
+package com.baryabuddy.app.domain.model
+
+// 🧾 Flat row for transaction lists: the transaction columns plus the category columns the
+// list item draws, LEFT JOINed in SQL (category fields are NULL for income).
+// All primitives - the list item formats dateUtcMillis itself (LedgerDate).
+data class TransactionRow(
+    val id: Long,
+    val amountCentavos: Long,
+    val categoryId: Int?,
+    val description: String?,
+    val dateUtcMillis: Long,
+    val createdAt: Long,
+    val categoryName: String?,
+    val categoryIcon: String?,
+    val categoryColor: Int?
+) {
+    val isIncome: Boolean
+        get() = categoryId == null
+}
@@ -0,0 +1,74 @@
+package com.baryabuddy.app.domain.usecase
+
+import com.baryabuddy.app.data.database.entities.IncomeFrequency
+import com.baryabuddy.app.data.database.entities.UserProfile
+import com.baryabuddy.app.domain.model.BudgetPeriod
+import java.time.DayOfWeek
+import java.time.LocalDate
+import java.time.temporal.TemporalAdjusters
+
+/**
+ * Works out the budget period a date falls in from the profile's resetDay and frequency:
+ * - MONTHLY / IRREGULAR: from resetDay of one month to resetDay of the next. A resetDay past
+ *   the end of a short month (e.g. 31 in February) falls on that month's last day.
+ * - WEEKLY: seven days starting on the resetDay-th day of the week (1 = Monday ... 7 = Sunday).
+ *
+ * The last result is cached and reused until the date leaves it or the profile's
+ * resetDay/frequency changes, so callers can ask on every refresh for free.
+ */
+class BudgetPeriodCalculator {
+
+    private var cachedFrequency: IncomeFrequency? = null
+    private var cachedResetDay: Int? = null
+    private var cachedPeriod: BudgetPeriod? = null
+
+    @Synchronized
+    fun periodFor(userProfile: UserProfile, date: LocalDate = LocalDate.now()): BudgetPeriod {
+        val cached = cachedPeriod
+        if (cached != null &&
+            cachedFrequency == userProfile.incomeFrequency &&
+            cachedResetDay == userProfile.resetDay &&
+            date in cached
+        ) {
+            return cached
+        }
+
+        val period = compute(userProfile.incomeFrequency, userProfile.resetDay, date)
+        cachedFrequency = userProfile.incomeFrequency
+        cachedResetDay = userProfile.resetDay
+        cachedPeriod = period
+        return period
+    }
+
+    companion object {
+        fun compute(frequency: IncomeFrequency, resetDay: Int, date: LocalDate): BudgetPeriod {
+            return when (frequency) {
+                IncomeFrequency.WEEKLY -> weekly(resetDay, date)
+                IncomeFrequency.MONTHLY,
+                IncomeFrequency.IRREGULAR -> monthly(resetDay, date)
+            }
+        }
+
+        private fun weekly(resetDay: Int, date: LocalDate): BudgetPeriod {
+            val resetDayOfWeek = DayOfWeek.of(resetDay.coerceIn(1, 7))
+            val start = date.with(TemporalAdjusters.previousOrSame(resetDayOfWeek))
+            return BudgetPeriod(start, start.plusDays(7))
+        }
+
+        private fun monthly(resetDay: Int, date: LocalDate): BudgetPeriod {
+            val day = resetDay.coerceIn(1, 31)
+            val thisMonthReset = resetDateIn(date.withDayOfMonth(1), day)
+            val start = if (date >= thisMonthReset) {
+                thisMonthReset
+            } else {
+                resetDateIn(date.withDayOfMonth(1).minusMonths(1), day)
+            }
+            val end = resetDateIn(start.withDayOfMonth(1).plusMonths(1), day)
+            return BudgetPeriod(start, end)
+        }
+
+        private fun resetDateIn(firstOfMonth: LocalDate, day: Int): LocalDate {
+            return firstOfMonth.withDayOfMonth(minOf(day, firstOfMonth.lengthOfMonth()))
+        }
+    }
+}
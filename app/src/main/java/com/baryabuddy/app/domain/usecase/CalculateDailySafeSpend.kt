@@ -1,11 +1,12 @@
 package com.baryabuddy.app.domain.usecase
 
-import com.baryabuddy.app.data.database.entities.IncomeFrequency
 import com.baryabuddy.app.data.database.entities.Transaction
-import com.baryabuddy.app.data.database.entities.TransactionType
 import com.baryabuddy.app.data.database.entities.UserProfile
+import com.baryabuddy.app.domain.model.BudgetPeriod
 import com.baryabuddy.app.domain.model.DailySafeSpendResult
+import com.baryabuddy.app.domain.model.PeriodTotals
 import com.baryabuddy.app.domain.model.SafeSpendStatus
+import com.baryabuddy.app.tracing.Traces
 import java.time.LocalDate
 
 class CalculateDailySafeSpend {
@@ -13,57 +14,75 @@ class CalculateDailySafeSpend {
     operator fun invoke(
         userProfile: UserProfile,
         transactions: List<Transaction>,
-        currentDate: LocalDate = LocalDate.now()
+        currentDate: LocalDate = LocalDate.now(),
+        period: BudgetPeriod = periodOf(userProfile, currentDate)
     ): DailySafeSpendResult {
-        
-        // 1. 🆕 STUDENT LOGIC PREP
-        // If frequency is WEEKLY, normalize to Monthly for the calculation
-        val effectiveMonthlyIncomeCentavos = when (userProfile.incomeFrequency) {
-            IncomeFrequency.WEEKLY -> userProfile.incomeAmount * 4
-            IncomeFrequency.MONTHLY -> userProfile.incomeAmount
-            IncomeFrequency.IRREGULAR -> userProfile.incomeAmount // User handles manually
+
+        // 5 + 6. 🧠 Smart Loop: filter to the current period and sum income and expenses
+        // separately in one pass - plain Long comparisons, no intermediate list or boxing
+        val periodTotals = Traces.section("DSS.sumTransactions") {
+            val startDay = period.startEpochDay
+            val endDay = period.endEpochDay
+            var incomeCentavos = 0L
+            var expenseCentavos = 0L
+            for (index in transactions.indices) {
+                val transaction = transactions[index]
+                if (transaction.epochDay < startDay || transaction.epochDay >= endDay) continue
+                if (transaction.categoryId == null) {
+                    incomeCentavos += transaction.amountCentavos
+                } else {
+                    expenseCentavos += transaction.amountCentavos
+                }
+            }
+            PeriodTotals(incomeCentavos, expenseCentavos)
         }
-        
+
+        return invoke(
+            userProfile = userProfile,
+            periodTotals = periodTotals,
+            currentDate = currentDate,
+            period = period
+        )
+    }
+
+    // Same calculation, but with the current period already summed (DailyTotalDao, kept
+    // current by IncrementalDailySafeSpend), so the cost stays flat as history grows.
+    operator fun invoke(
+        userProfile: UserProfile,
+        periodTotals: PeriodTotals,
+        currentDate: LocalDate = LocalDate.now(),
+        period: BudgetPeriod = periodOf(userProfile, currentDate)
+    ): DailySafeSpendResult = Traces.section("DSS.compute") {
+
+        // 1. 🆕 STUDENT LOGIC PREP
+        // incomeAmount is what arrives once per period (a week for WEEKLY, a month otherwise),
+        // and the period itself follows resetDay - see BudgetPeriodCalculator
+        val effectivePeriodIncomeCentavos = userProfile.incomeAmount
+
         // 2. 🛡️ Amounts are already in Centavos (Safe Math)
         val billsCentavos = userProfile.fixedBillsAmount
         val savingsCentavos = userProfile.savingsGoalAmount
-        
+
         // 3. Calculate Disposable Budget
-        val disposableCentavos = effectiveMonthlyIncomeCentavos - billsCentavos - savingsCentavos
+        val disposableCentavos = effectivePeriodIncomeCentavos - billsCentavos - savingsCentavos
 
         // 4. Calculate "Ideal" Daily Spend (The baseline) in centavos
-        val lengthOfMonth = currentDate.lengthOfMonth()
-        val idealDailyCentavos = disposableCentavos / lengthOfMonth
-        
-        // 5. Calculate Actual Spending (filter transactions for current month)
-        val currentMonthStart = currentDate.withDayOfMonth(1)
-        val nextMonthStart = currentMonthStart.plusMonths(1)
-        
-        val currentMonthTransactions = transactions.filter { transaction ->
-            val transactionDate = transaction.date.toLocalDate()
-            transactionDate >= currentMonthStart && transactionDate < nextMonthStart
-        }
-        
-        // 6. 🧠 Smart Loop: Calculate Net Spend
+        val lengthOfPeriod = period.lengthInDays
+        val idealDailyCentavos = disposableCentavos / lengthOfPeriod
+
         // Income reduces total spent (refills bucket); Expenses increase it.
-        val netSpentCentavos = currentMonthTransactions.sumOf { transaction ->
-            if (transaction.type == TransactionType.INCOME) {
-                -transaction.amountCentavos // Income increases budget (subtract from spent)
-            } else {
-                transaction.amountCentavos // Expenses decrease budget (add to spent)
-            }
-        }
+        val netSpentCentavos = periodTotals.netSpentCentavos
 
         // 7. Calculate Remaining
         // Note: This can be > disposableCentavos if user added extra income!
         val remainingCentavos = disposableCentavos - netSpentCentavos
-        
+
         // 8. Time Logic
-        val daysRemaining = lengthOfMonth - currentDate.dayOfMonth + 1
-        
+        val daysRemaining = period.daysRemaining(currentDate)
+
         // 9. 🚨 Safety Check: Avoid Division by Zero
         val safeDays = if (daysRemaining < 1) 1 else daysRemaining
-        
+
         // 10. Calculate DSS (Integer Division first)
         val dailySafeSpendCentavos = if (remainingCentavos > 0) {
             remainingCentavos / safeDays
@@ -72,7 +91,7 @@ class CalculateDailySafeSpend {
         }
 
         // 11. 🎨 Determine Status Color
-        // Compare against "Ideal" baseline (Disposable / Total Days in Month)
+        // Compare against "Ideal" baseline (Disposable / Total Days in Period)
         val status = when {
             dailySafeSpendCentavos >= (idealDailyCentavos * 0.7) -> SafeSpendStatus.GREEN
             dailySafeSpendCentavos >= (idealDailyCentavos * 0.3) -> SafeSpendStatus.YELLOW
@@ -80,11 +99,14 @@ class CalculateDailySafeSpend {
         }
 
         // 12. Final Convert to Doubles for UI
-        return DailySafeSpendResult(
+        DailySafeSpendResult(
             dailySafeSpendAmount = dailySafeSpendCentavos / 100.0,
             totalRemaining = remainingCentavos / 100.0,
             statusColor = status
         )
     }
-}
 
+    private fun periodOf(userProfile: UserProfile, currentDate: LocalDate): BudgetPeriod {
+        return BudgetPeriodCalculator.compute(userProfile.incomeFrequency, userProfile.resetDay, currentDate)
+    }
+}
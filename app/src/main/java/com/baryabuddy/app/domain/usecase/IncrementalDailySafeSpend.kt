@@ -0,0 +1,97 @@
+package com.baryabuddy.app.domain.usecase
+
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.entities.TransactionType
+import com.baryabuddy.app.domain.model.BudgetPeriod
+import com.baryabuddy.app.domain.model.PeriodTotals
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+
+// What a write did: its [result], the row it replaced or deleted and the row it wrote
+class RecordedWrite<T>(
+    val result: T,
+    val removed: Transaction?,
+    val added: Transaction?
+)
+
+/**
+ * Keeps the active period's income/expense totals in memory and patches them with O(1)
+ * deltas as transactions are written, so the Daily Safe Spend never re-reads the ledger
+ * while the period is unchanged. Profile changes don't touch the totals at all - they
+ * only feed the (O(1)) PeriodTotals overload of [CalculateDailySafeSpend].
+ *
+ * A full reload ([loadTotals]) only happens on first use, on period rollover, or after
+ * [invalidate] (for writes that bypass [recordWrite], e.g. bulk imports).
+ */
+class IncrementalDailySafeSpend(
+    private val loadTotals: suspend (period: BudgetPeriod) -> PeriodTotals
+) {
+    // Writes and reloads are serialized so a delta can never be counted twice
+    private val mutex = Mutex()
+
+    private var period: BudgetPeriod? = null
+
+    private val _totals = MutableStateFlow<PeriodTotals?>(null)
+    val totals: StateFlow<PeriodTotals?> = _totals.asStateFlow()
+
+    // Makes sure the totals describe [target], reloading only on rollover or profile change
+    suspend fun ensurePeriod(target: BudgetPeriod): PeriodTotals = mutex.withLock {
+        val current = _totals.value
+        if (current != null && target == period) {
+            return current
+        }
+        reload(target)
+    }
+
+    suspend fun invalidate() {
+        mutex.withLock {
+            period?.let { reload(it) }
+        }
+    }
+
+    /**
+     * Runs [write] and then folds its effect into the running totals.
+     * [removed] is the row as it was before the write (update/delete), [added] the row
+     * as it is after (insert/update).
+     */
+    suspend fun <T> recordWrite(removed: Transaction?, added: Transaction?, write: suspend () -> T): T =
+        recordWrite { RecordedWrite(write(), removed, added) }
+
+    /**
+     * Like the overload above, but [write] reports the rows itself. Use this when the
+     * "before" row has to be read as part of the write: the read then happens under the same
+     * lock, so two writes to one row can't both subtract the same old amount.
+     */
+    suspend fun <T> recordWrite(write: suspend () -> RecordedWrite<T>): T =
+        mutex.withLock {
+            val recorded = write()
+            val current = _totals.value
+            if (current != null) {
+                var income = current.incomeCentavos
+                var expense = current.expenseCentavos
+                recorded.removed?.takeIf { inPeriod(it) }?.let {
+                    if (it.type == TransactionType.INCOME) income -= it.amountCentavos else expense -= it.amountCentavos
+                }
+                recorded.added?.takeIf { inPeriod(it) }?.let {
+                    if (it.type == TransactionType.INCOME) income += it.amountCentavos else expense += it.amountCentavos
+                }
+                _totals.value = PeriodTotals(income, expense)
+            }
+            recorded.result
+        }
+
+    private suspend fun reload(target: BudgetPeriod): PeriodTotals {
+        val loaded = loadTotals(target)
+        period = target
+        _totals.value = loaded
+        return loaded
+    }
+
+    private fun inPeriod(transaction: Transaction): Boolean {
+        val active = period ?: return false
+        return active.containsEpochDay(transaction.epochDay)
+    }
+}
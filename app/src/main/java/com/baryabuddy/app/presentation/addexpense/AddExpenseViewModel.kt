@@ -5,6 +5,7 @@ import androidx.lifecycle.viewModelScope
 import com.baryabuddy.app.data.database.entities.Transaction
 import com.baryabuddy.app.data.database.entities.Category
 import com.baryabuddy.app.data.repository.BaryaBuddyRepository
+import com.baryabuddy.app.domain.model.LedgerDate
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
@@ -34,6 +35,7 @@ class AddExpenseViewModel(
         loadCategories()
     }
 
+    // Collects the repository's in-memory category registry - opening the sheet reads no DB
     private fun loadCategories() {
         viewModelScope.launch {
             repository.getCategories().collect { categories ->
@@ -63,7 +65,7 @@ class AddExpenseViewModel(
             amount = (transaction.amountCentavos / 100.0).toString(),
             selectedCategoryId = transaction.categoryId?.toLong(),
             description = transaction.description ?: "",
-            date = transaction.date,
+            date = LedgerDate.toLocalDateTime(transaction.dateUtcMillis),
             isEditing = true,
             transactionId = transaction.id
         )
@@ -89,7 +91,8 @@ class AddExpenseViewModel(
                 amountCentavos = amountCentavos,
                 categoryId = categoryIdInt,
                 description = state.description.takeIf { it.isNotBlank() },
-                date = state.date,
+                dateUtcMillis = LedgerDate.utcMillis(state.date),
+                epochDay = LedgerDate.epochDay(state.date),
                 createdAt = System.currentTimeMillis() // Keep original or update?
             )
         } else {
@@ -98,7 +101,8 @@ class AddExpenseViewModel(
                 amountCentavos = amountCentavos,
                 categoryId = categoryIdInt,
                 description = state.description.takeIf { it.isNotBlank() },
-                date = state.date,
+                dateUtcMillis = LedgerDate.utcMillis(state.date),
+                epochDay = LedgerDate.epochDay(state.date),
                 createdAt = System.currentTimeMillis()
             )
         }
@@ -4,6 +4,7 @@ import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import com.baryabuddy.app.data.database.entities.Transaction
 import com.baryabuddy.app.data.repository.BaryaBuddyRepository
+import com.baryabuddy.app.domain.model.LedgerDate
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
@@ -42,7 +43,7 @@ class AddIncomeViewModel(
         _uiState.value = _uiState.value.copy(
             amount = (transaction.amountCentavos / 100.0).toString(),
             description = transaction.description ?: "",
-            date = transaction.date,
+            date = LedgerDate.toLocalDateTime(transaction.dateUtcMillis),
             isEditing = true,
             transactionId = transaction.id
         )
@@ -64,7 +65,8 @@ class AddIncomeViewModel(
                 amountCentavos = amountCentavos,
                 categoryId = null, // NULL = Income
                 description = state.description.takeIf { it.isNotBlank() },
-                date = state.date,
+                dateUtcMillis = LedgerDate.utcMillis(state.date),
+                epochDay = LedgerDate.epochDay(state.date),
                 createdAt = System.currentTimeMillis()
             )
         } else {
@@ -73,7 +75,8 @@ class AddIncomeViewModel(
                 amountCentavos = amountCentavos,
                 categoryId = null, // NULL = Income
                 description = state.description.takeIf { it.isNotBlank() },
-                date = state.date,
+                dateUtcMillis = LedgerDate.utcMillis(state.date),
+                epochDay = LedgerDate.epochDay(state.date),
                 createdAt = System.currentTimeMillis()
             )
         }
@@ -0,0 +1,206 @@
+package com.baryabuddy.app.presentation.debug
+
+import androidx.activity.compose.rememberLauncherForActivityResult
+import androidx.activity.result.contract.ActivityResultContracts
+import androidx.compose.foundation.layout.Arrangement
+import androidx.compose.foundation.layout.Column
+import androidx.compose.foundation.layout.PaddingValues
+import androidx.compose.foundation.layout.Row
+import androidx.compose.foundation.layout.fillMaxSize
+import androidx.compose.foundation.layout.fillMaxWidth
+import androidx.compose.foundation.layout.padding
+import androidx.compose.foundation.lazy.LazyColumn
+import androidx.compose.foundation.lazy.items
+import androidx.compose.material.icons.Icons
+import androidx.compose.material.icons.filled.ArrowBack
+import androidx.compose.material3.Card
+import androidx.compose.material3.ExperimentalMaterial3Api
+import androidx.compose.material3.Icon
+import androidx.compose.material3.IconButton
+import androidx.compose.material3.MaterialTheme
+import androidx.compose.material3.OutlinedButton
+import androidx.compose.material3.Scaffold
+import androidx.compose.material3.Switch
+import androidx.compose.material3.Text
+import androidx.compose.material3.TopAppBar
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.collectAsState
+import androidx.compose.runtime.getValue
+import androidx.compose.ui.Alignment
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.platform.LocalContext
+import androidx.compose.ui.text.font.FontFamily
+import androidx.compose.ui.text.style.TextOverflow
+import androidx.compose.ui.unit.dp
+import androidx.compose.ui.unit.sp
+import com.baryabuddy.app.BuildConfig
+import com.baryabuddy.app.data.database.metrics.StatementSnapshot
+import com.baryabuddy.app.data.repository.InvalidationMetrics
+
+@OptIn(ExperimentalMaterial3Api::class)
+@Composable
+fun QueryMetricsScreen(
+    viewModel: QueryMetricsViewModel,
+    onBack: () -> Unit
+) {
+    val uiState by viewModel.uiState.collectAsState()
+    val context = LocalContext.current
+    val exportLauncher = rememberLauncherForActivityResult(
+        ActivityResultContracts.CreateDocument("application/json")
+    ) { uri ->
+        uri?.let { selected ->
+            viewModel.exportJson {
+                context.contentResolver.openOutputStream(selected)
+                    ?: throw java.io.FileNotFoundException("Cannot open $selected")
+            }
+        }
+    }
+
+    Scaffold(
+        topBar = {
+            TopAppBar(
+                title = { Text("Perf diagnostics") },
+                navigationIcon = {
+                    IconButton(onClick = onBack) {
+                        Icon(
+                            imageVector = Icons.Default.ArrowBack,
+                            contentDescription = "Back"
+                        )
+                    }
+                }
+            )
+        }
+    ) { paddingValues ->
+        LazyColumn(
+            modifier = Modifier
+                .fillMaxSize()
+                .padding(paddingValues),
+            contentPadding = PaddingValues(16.dp),
+            verticalArrangement = Arrangement.spacedBy(8.dp)
+        ) {
+            item {
+                Row(
+                    modifier = Modifier.fillMaxWidth(),
+                    verticalAlignment = Alignment.CenterVertically
+                ) {
+                    Column(modifier = Modifier.weight(1f)) {
+                        Text("Record query timings")
+                        Text(
+                            text = "Takes effect after the app restarts",
+                            fontSize = 12.sp,
+                            color = MaterialTheme.colorScheme.onSurfaceVariant
+                        )
+                    }
+                    Switch(
+                        checked = uiState.enabled,
+                        onCheckedChange = { viewModel.setEnabled(it) }
+                    )
+                }
+            }
+
+            item {
+                Row(
+                    modifier = Modifier.fillMaxWidth(),
+                    horizontalArrangement = Arrangement.spacedBy(8.dp)
+                ) {
+                    OutlinedButton(onClick = { viewModel.refresh() }, modifier = Modifier.weight(1f)) {
+                        Text("Refresh")
+                    }
+                    OutlinedButton(onClick = { viewModel.reset() }, modifier = Modifier.weight(1f)) {
+                        Text("Reset")
+                    }
+                    OutlinedButton(
+                        onClick = { exportLauncher.launch("baryabuddy-query-metrics.json") },
+                        modifier = Modifier.weight(1f)
+                    ) {
+                        Text("Export")
+                    }
+                }
+                uiState.exportStatus?.let { status ->
+                    Text(
+                        text = status,
+                        fontSize = 12.sp
+                    )
+                }
+            }
+
+            // TraceRecorder only runs in debug builds, so there is nothing to save in release
+            if (BuildConfig.DEBUG) {
+                item {
+                    OutlinedButton(
+                        onClick = { viewModel.saveTrace(TRACE_WINDOW_SECONDS) },
+                        modifier = Modifier.fillMaxWidth()
+                    ) {
+                        Text("Save trace (last $TRACE_WINDOW_SECONDS s)")
+                    }
+                    uiState.traceStatus?.let { status ->
+                        Text(
+                            text = status,
+                            fontSize = 12.sp
+                        )
+                    }
+                }
+            }
+
+            item {
+                InvalidationCard(uiState.invalidations)
+            }
+
+            if (uiState.statements.isEmpty()) {
+                item {
+                    Text(
+                        text = if (uiState.enabled) "No queries recorded yet" else "Recording is off",
+                        color = MaterialTheme.colorScheme.onSurfaceVariant
+                    )
+                }
+            }
+
+            items(uiState.statements, key = { it.sql }) { statement ->
+                StatementCard(statement)
+            }
+        }
+    }
+}
+
+@Composable
+private fun StatementCard(statement: StatementSnapshot) {
+    Card(modifier = Modifier.fillMaxWidth()) {
+        Column(modifier = Modifier.padding(12.dp)) {
+            Text(
+                text = statement.sql,
+                fontFamily = FontFamily.Monospace,
+                fontSize = 11.sp,
+                maxLines = 3,
+                overflow = TextOverflow.Ellipsis
+            )
+            Text(
+                text = "×${statement.count}  total ${formatMillis(statement.totalMillis)}  " +
+                    "avg ${formatMillis(statement.averageMillis)}  " +
+                    "p95 ${formatMillis(statement.percentileMillis(0.95))}  " +
+                    "max ${formatMillis(statement.maxMillis)}",
+                fontSize = 12.sp,
+                modifier = Modifier.padding(top = 4.dp)
+            )
+        }
+    }
+}
+
+// Room invalidations and ledger changes vs. the recomputes they actually caused after coalescing
+@Composable
+private fun InvalidationCard(metrics: InvalidationMetrics) {
+    Card(modifier = Modifier.fillMaxWidth()) {
+        Column(modifier = Modifier.padding(12.dp)) {
+            Text("Invalidations and ledger changes")
+            Text(
+                text = "received ${metrics.invalidations}  recomputed ${metrics.emissions}  " +
+                    "merged ${metrics.merged}",
+                fontSize = 12.sp,
+                modifier = Modifier.padding(top = 4.dp)
+            )
+        }
+    }
+}
+
+private const val TRACE_WINDOW_SECONDS = 30L
+
+private fun formatMillis(millis: Double): String = String.format("%.2f ms", millis)
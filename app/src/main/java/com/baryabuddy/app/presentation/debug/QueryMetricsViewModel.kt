@@ -0,0 +1,94 @@
+package com.baryabuddy.app.presentation.debug
+
+import android.content.Context
+import androidx.lifecycle.ViewModel
+import androidx.lifecycle.viewModelScope
+import com.baryabuddy.app.data.database.metrics.QueryMetrics
+import com.baryabuddy.app.data.database.metrics.StatementSnapshot
+import com.baryabuddy.app.data.repository.InvalidationMetrics
+import com.baryabuddy.app.tracing.TraceRecorder
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import java.io.File
+import java.io.OutputStream
+
+data class QueryMetricsUiState(
+    // Saved setting; the running database only picks it up on the next start
+    val enabled: Boolean = false,
+    val statements: List<StatementSnapshot> = emptyList(),
+    val invalidations: InvalidationMetrics = InvalidationMetrics(),
+    val exportStatus: String? = null,
+    val traceStatus: String? = null
+)
+
+// 📊 Reads the process-wide QueryMetrics and TraceRecorder (debug builds only record traces),
+// plus the repository's invalidation coalescing counters
+class QueryMetricsViewModel(
+    private val appContext: Context,
+    invalidationMetrics: StateFlow<InvalidationMetrics>
+) : ViewModel() {
+
+    private val recorder = QueryMetrics.recorder
+
+    private val _uiState = MutableStateFlow(QueryMetricsUiState(enabled = QueryMetrics.isEnabled(appContext)))
+    val uiState: StateFlow<QueryMetricsUiState> = _uiState.asStateFlow()
+
+    init {
+        refresh()
+        viewModelScope.launch {
+            invalidationMetrics.collect { metrics ->
+                _uiState.value = _uiState.value.copy(invalidations = metrics)
+            }
+        }
+    }
+
+    fun refresh() {
+        _uiState.value = _uiState.value.copy(statements = recorder.snapshot())
+    }
+
+    fun setEnabled(enabled: Boolean) {
+        QueryMetrics.setEnabled(appContext, enabled)
+        _uiState.value = _uiState.value.copy(enabled = enabled)
+    }
+
+    fun reset() {
+        recorder.reset()
+        refresh()
+    }
+
+    fun exportJson(openOutput: () -> OutputStream) {
+        viewModelScope.launch {
+            try {
+                val json = recorder.toJson()
+                withContext(Dispatchers.IO) {
+                    openOutput().bufferedWriter().use { it.write(json) }
+                }
+                _uiState.value = _uiState.value.copy(exportStatus = "Exported ${_uiState.value.statements.size} statements")
+            } catch (e: Exception) {
+                _uiState.value = _uiState.value.copy(exportStatus = "Export failed: ${e.message}")
+            }
+        }
+    }
+
+    // Dumps the last [seconds] of trace sections to app storage (files/traces) for Perfetto
+    fun saveTrace(seconds: Long) {
+        viewModelScope.launch {
+            try {
+                val file = withContext(Dispatchers.IO) {
+                    TraceRecorder.dump(File(appContext.filesDir, TRACE_DIRECTORY), seconds)
+                }
+                _uiState.value = _uiState.value.copy(traceStatus = "Saved ${file.absolutePath}")
+            } catch (e: Exception) {
+                _uiState.value = _uiState.value.copy(traceStatus = "Trace dump failed: ${e.message}")
+            }
+        }
+    }
+
+    companion object {
+        private const val TRACE_DIRECTORY = "traces"
+    }
+}
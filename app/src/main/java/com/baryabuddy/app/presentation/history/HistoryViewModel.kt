@@ -0,0 +1,35 @@
+package com.baryabuddy.app.presentation.history
+
+import androidx.lifecycle.ViewModel
+import androidx.lifecycle.viewModelScope
+import androidx.paging.PagingData
+import androidx.paging.cachedIn
+import com.baryabuddy.app.data.repository.BaryaBuddyRepository
+import com.baryabuddy.app.domain.model.TransactionRow
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.map
+
+class HistoryViewModel(
+    private val repository: BaryaBuddyRepository
+) : ViewModel() {
+
+    // Cached so rotating the screen doesn't restart paging from the top
+    val history: Flow<PagingData<TransactionRow>> = repository.getTransactionHistory()
+        .cachedIn(viewModelScope)
+
+    val currency: Flow<String?> = repository.getUserProfile().map { it?.currency }
+
+    suspend fun deleteTransaction(transactionId: Long): Boolean {
+        return try {
+            val transaction = repository.getTransactionById(transactionId)
+            if (transaction != null) {
+                repository.deleteTransaction(transaction)
+                true
+            } else {
+                false
+            }
+        } catch (e: Exception) {
+            false
+        }
+    }
+}
@@ -17,7 +17,9 @@ import androidx.compose.material.icons.filled.Add
 import androidx.compose.material.icons.filled.AttachMoney
 import androidx.compose.material.icons.filled.Delete
 import androidx.compose.material.icons.filled.Edit
+import androidx.compose.material.icons.filled.History
 import androidx.compose.material.icons.filled.MoreVert
+import androidx.compose.material.icons.filled.Search
 import androidx.compose.material.icons.filled.Settings
 import androidx.compose.material3.Card
 import androidx.compose.material3.CircularProgressIndicator
@@ -47,6 +49,8 @@ import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import androidx.lifecycle.viewmodel.compose.viewModel
+import com.baryabuddy.app.domain.model.LedgerDate
+import com.baryabuddy.app.domain.model.TransactionRow
 import com.baryabuddy.app.presentation.components.getIconResource
 import com.baryabuddy.app.presentation.components.PulseCircle
 import java.time.format.DateTimeFormatter
@@ -58,6 +62,8 @@ fun HomeScreen(
     onAddExpenseClick: () -> Unit,
     onAddIncomeClick: () -> Unit,
     onSettingsClick: () -> Unit,
+    onHistoryClick: () -> Unit,
+    onSearchClick: () -> Unit,
     onEditTransaction: (Long) -> Unit
 ) {
     val uiState by viewModel.uiState.collectAsState()
@@ -73,6 +79,18 @@ fun HomeScreen(
             TopAppBar(
                 title = { Text("BaryaBuddy") },
                 actions = {
+                    IconButton(onClick = onSearchClick) {
+                        Icon(
+                            imageVector = Icons.Default.Search,
+                            contentDescription = "Search"
+                        )
+                    }
+                    IconButton(onClick = onHistoryClick) {
+                        Icon(
+                            imageVector = Icons.Default.History,
+                            contentDescription = "History"
+                        )
+                    }
                     IconButton(onClick = onSettingsClick) {
                         Icon(
                             imageVector = Icons.Default.Settings,
@@ -170,14 +188,14 @@ fun HomeScreen(
                     LazyColumn(
                         modifier = Modifier.fillMaxWidth()
                     ) {
-                        items(uiState.recentTransactions) { transactionUi ->
+                        items(uiState.recentTransactions, key = { it.id }) { row ->
                             TransactionItem(
-                                transactionUi = transactionUi,
+                                row = row,
                                 currency = uiState.currency,
-                                onEdit = { onEditTransaction(transactionUi.transaction.id) },
+                                onEdit = { onEditTransaction(row.id) },
                                 onDelete = {
                                     scope.launch {
-                                        viewModel.deleteTransaction(transactionUi.transaction.id)
+                                        viewModel.deleteTransaction(row.id)
                                     }
                                 }
                             )
@@ -191,14 +209,12 @@ fun HomeScreen(
 
 @Composable
 fun TransactionItem(
-    transactionUi: com.baryabuddy.app.domain.model.TransactionUi,
+    row: TransactionRow,
     currency: String,
     onEdit: () -> Unit = {},
     onDelete: () -> Unit = {}
 ) {
-    val transaction = transactionUi.transaction
-    val category = transactionUi.category
-    val isIncome = transaction.categoryId == null
+    val isIncome = row.isIncome
     var showMenu by remember { mutableStateOf(false) }
 
     Card(
@@ -220,12 +236,12 @@ fun TransactionItem(
                     modifier = Modifier.size(40.dp),
                     tint = Color(0xFF4CAF50) // Green for income
                 )
-            } else if (category != null) {
+            } else if (row.categoryIcon != null && row.categoryColor != null) {
                 Icon(
-                    imageVector = getIconResource(category.icon),
-                    contentDescription = category.name,
+                    imageVector = getIconResource(row.categoryIcon),
+                    contentDescription = row.categoryName,
                     modifier = Modifier.size(40.dp),
-                    tint = Color(category.color)
+                    tint = Color(row.categoryColor)
                 )
             } else {
                 Icon(
@@ -242,19 +258,19 @@ fun TransactionItem(
                 modifier = Modifier.weight(1f)
             ) {
                 Text(
-                    text = if (isIncome) "Income" else (category?.name ?: "Other"),
+                    text = if (isIncome) "Income" else (row.categoryName ?: "Other"),
                     style = MaterialTheme.typography.bodyLarge,
                     fontWeight = FontWeight.Medium
                 )
-                if (!transaction.description.isNullOrBlank()) {
+                if (!row.description.isNullOrBlank()) {
                     Text(
-                        text = transaction.description,
+                        text = row.description,
                         style = MaterialTheme.typography.bodySmall,
                         color = MaterialTheme.colorScheme.onSurface.copy(alpha = 0.6f)
                     )
                 }
                 Text(
-                    text = formatDate(transaction.date),
+                    text = formatDate(row.dateUtcMillis),
                     style = MaterialTheme.typography.bodySmall,
                     color = MaterialTheme.colorScheme.onSurface.copy(alpha = 0.6f),
                     fontSize = 12.sp
@@ -262,7 +278,7 @@ fun TransactionItem(
             }
 
             // Amount - Convert centavos to display amount
-            val displayAmount = transaction.amountCentavos / 100.0
+            val displayAmount = row.amountCentavos / 100.0
             Text(
                 text = "${if (isIncome) "+" else ""}$currency${String.format("%.2f", displayAmount)}",
                 style = MaterialTheme.typography.bodyLarge,
@@ -314,7 +330,10 @@ fun TransactionItem(
     }
 }
 
-private fun formatDate(date: java.time.LocalDateTime): String {
-    return date.toLocalDate().format(DateTimeFormatter.ofPattern("MMM dd, yyyy"))
+private val rowDateFormat = DateTimeFormatter.ofPattern("MMM dd, yyyy")
+
+// The only place a list row becomes a date object
+private fun formatDate(dateUtcMillis: Long): String {
+    return LedgerDate.toLocalDateTime(dateUtcMillis).format(rowDateFormat)
 }
 
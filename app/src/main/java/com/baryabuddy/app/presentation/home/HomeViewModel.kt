@@ -3,79 +3,100 @@ package com.baryabuddy.app.presentation.home
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import com.baryabuddy.app.data.repository.BaryaBuddyRepository
+import com.baryabuddy.app.data.database.entities.UserProfile
 import com.baryabuddy.app.domain.model.DailySafeSpendResult
+import com.baryabuddy.app.domain.model.PeriodTotals
 import com.baryabuddy.app.domain.model.SafeSpendStatus
-import com.baryabuddy.app.domain.model.TransactionUi
+import com.baryabuddy.app.domain.model.TransactionRow
 import com.baryabuddy.app.domain.usecase.CalculateDailySafeSpend
+import com.baryabuddy.app.tracing.Traces
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharingStarted
 import kotlinx.coroutines.flow.StateFlow
-import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.combine
-import kotlinx.coroutines.launch
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.stateIn
 import java.time.LocalDate
 
 data class HomeUiState(
     val dailySafeSpend: DailySafeSpendResult? = null,
-    val recentTransactions: List<TransactionUi> = emptyList(),
+    val recentTransactions: List<TransactionRow> = emptyList(),
     val isLoading: Boolean = false,
     val currency: String = "₱"
 )
 
+@OptIn(ExperimentalCoroutinesApi::class)
 class HomeViewModel(
     private val repository: BaryaBuddyRepository,
     private val calculateDailySafeSpend: CalculateDailySafeSpend
 ) : ViewModel() {
 
-    private val _uiState = MutableStateFlow(HomeUiState())
-    val uiState: StateFlow<HomeUiState> = _uiState.asStateFlow()
+    // Bumped by refreshData(); only matters when it changes "today" (day rollover)
+    private val refreshTrigger = MutableStateFlow(0)
 
-    init {
-        loadDashboard()
-    }
-
-    fun loadDashboard() {
-        viewModelScope.launch {
-            _uiState.value = _uiState.value.copy(isLoading = true)
+    // 📊 One pipeline for the whole screen. Room observers are created once per subscription
+    // (and dropped 5s after the screen goes away); refreshes never stack new collectors.
+    val uiState: StateFlow<HomeUiState> = refreshTrigger
+        .map { LocalDate.now() }
+        .distinctUntilChanged()
+        .flatMapLatest { today -> dashboard(today) }
+        .stateIn(viewModelScope, SharingStarted.WhileSubscribed(5_000), HomeUiState(isLoading = true))
 
-            // Combine user profile, transactions, and categories
-            combine(
-                repository.getUserProfile(),
-                repository.getRecentTransactions(10),
-                repository.getCategories(),
-                repository.getAllTransactions()
-            ) { profile, transactions, categories, allTransactions ->
+    private fun dashboard(today: LocalDate): Flow<HomeUiState> {
+        // Combine user profile + its period's totals with recent rows (category joined in SQL)
+        val profileWithTotals = repository.getUserProfile()
+            .distinctUntilChanged()
+            .flatMapLatest { profile ->
                 if (profile == null) {
-                    _uiState.value = _uiState.value.copy(isLoading = false)
-                    return@combine
+                    flowOf(null)
+                } else {
+                    repository.getCurrentPeriodTotals(profile, today)
+                        .distinctUntilChanged()
+                        .map { totals -> profile to totals }
                 }
+            }
+        return combine(
+            profileWithTotals,
+            repository.getRecentTransactionRows(10).distinctUntilChanged()
+        ) { profileAndTotals, recentRows ->
+            Traces.section("Home.combine") { buildState(today, profileAndTotals, recentRows) }
+        }.distinctUntilChanged()
+    }
 
-                // Calculate DSS
-                val dssResult = calculateDailySafeSpend(
-                    userProfile = profile,
-                    transactions = allTransactions,
-                    currentDate = LocalDate.now()
-                )
+    private fun buildState(
+        today: LocalDate,
+        profileAndTotals: Pair<UserProfile, PeriodTotals>?,
+        recentRows: List<TransactionRow>
+    ): HomeUiState {
+        if (profileAndTotals == null) {
+            return HomeUiState(recentTransactions = recentRows, isLoading = false)
+        }
+        val (profile, periodTotals) = profileAndTotals
 
-                // Map transactions to TransactionUi
-                val transactionUiList = transactions.map { transaction ->
-                    val category = transaction.categoryId?.let { catId ->
-                        categories.find { it.id.toInt() == catId }
-                    }
-                    TransactionUi(transaction, category)
-                }
+        // Calculate DSS over the profile's budget period (resetDay/frequency aware)
+        val dssResult = calculateDailySafeSpend(
+            userProfile = profile,
+            periodTotals = periodTotals,
+            currentDate = today,
+            period = repository.getBudgetPeriod(profile, today)
+        )
 
-                _uiState.value = HomeUiState(
-                    dailySafeSpend = dssResult,
-                    recentTransactions = transactionUiList,
-                    isLoading = false,
-                    currency = profile.currency
-                )
-            }.collect { }
-        }
+        return HomeUiState(
+            dailySafeSpend = dssResult,
+            recentTransactions = recentRows,
+            isLoading = false,
+            currency = profile.currency
+        )
     }
 
+    // Re-checks the date; live data needs no refresh since every input is already observed
     fun refreshData() {
-        loadDashboard()
+        refreshTrigger.value++
     }
 
     suspend fun deleteTransaction(transactionId: Long): Boolean {
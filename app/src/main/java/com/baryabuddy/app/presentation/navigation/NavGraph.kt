@@ -2,6 +2,7 @@ package com.baryabuddy.app.presentation.navigation
 
 import androidx.compose.runtime.Composable
 import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.ui.platform.LocalContext
 import androidx.lifecycle.viewmodel.compose.viewModel
 import androidx.navigation.NavHostController
 import androidx.navigation.NavType
@@ -15,10 +16,16 @@ import com.baryabuddy.app.presentation.addincome.AddIncomeScreen
 import com.baryabuddy.app.presentation.addincome.AddIncomeViewModel
 import com.baryabuddy.app.presentation.addexpense.AddExpenseScreen
 import com.baryabuddy.app.presentation.addexpense.AddExpenseViewModel
+import com.baryabuddy.app.presentation.debug.QueryMetricsScreen
+import com.baryabuddy.app.presentation.debug.QueryMetricsViewModel
+import com.baryabuddy.app.presentation.history.HistoryScreen
+import com.baryabuddy.app.presentation.history.HistoryViewModel
 import com.baryabuddy.app.presentation.home.HomeScreen
 import com.baryabuddy.app.presentation.home.HomeViewModel
 import com.baryabuddy.app.presentation.onboarding.OnboardingScreen
 import com.baryabuddy.app.presentation.onboarding.OnboardingViewModel
+import com.baryabuddy.app.presentation.search.SearchScreen
+import com.baryabuddy.app.presentation.search.SearchViewModel
 import com.baryabuddy.app.presentation.settings.SettingsScreen
 import com.baryabuddy.app.presentation.settings.SettingsViewModel
 
@@ -33,6 +40,9 @@ sealed class Screen(val route: String) {
         fun createRoute(transactionId: Long) = "edit_income/$transactionId"
     }
     object Settings : Screen("settings")
+    object History : Screen("history")
+    object Search : Screen("search")
+    object QueryMetrics : Screen("query_metrics")
     object Onboarding : Screen("onboarding")
 }
 
@@ -63,6 +73,12 @@ fun NavGraph(
                 onSettingsClick = {
                     navController.navigate(Screen.Settings.route)
                 },
+                onHistoryClick = {
+                    navController.navigate(Screen.History.route)
+                },
+                onSearchClick = {
+                    navController.navigate(Screen.Search.route)
+                },
                 onEditTransaction = { transactionId ->
                     // We'll determine the transaction type in the composable
                     // For now, navigate to a route that will check the type
@@ -199,6 +215,52 @@ fun NavGraph(
                 onSettingsSaved = {
                     // Refresh home screen data
                     navController.popBackStack()
+                },
+                onOpenQueryMetrics = {
+                    navController.navigate(Screen.QueryMetrics.route)
+                }
+            )
+        }
+
+        composable(Screen.History.route) {
+            val viewModel: HistoryViewModel = viewModel(
+                factory = HistoryViewModelFactory(repository)
+            )
+            HistoryScreen(
+                viewModel = viewModel,
+                onBack = {
+                    navController.popBackStack()
+                },
+                onEditTransaction = { transactionId ->
+                    navController.navigate("edit_transaction/$transactionId")
+                }
+            )
+        }
+
+        composable(Screen.Search.route) {
+            val viewModel: SearchViewModel = viewModel(
+                factory = SearchViewModelFactory(repository)
+            )
+            SearchScreen(
+                viewModel = viewModel,
+                onBack = {
+                    navController.popBackStack()
+                },
+                onEditTransaction = { transactionId ->
+                    navController.navigate("edit_transaction/$transactionId")
+                }
+            )
+        }
+
+        composable(Screen.QueryMetrics.route) {
+            val context = LocalContext.current
+            val viewModel: QueryMetricsViewModel = viewModel(
+                factory = QueryMetricsViewModelFactory(context.applicationContext, repository)
+            )
+            QueryMetricsScreen(
+                viewModel = viewModel,
+                onBack = {
+                    navController.popBackStack()
                 }
             )
         }
@@ -281,3 +343,39 @@ class SettingsViewModelFactory(
     }
 }
 
+class HistoryViewModelFactory(
+    private val repository: BaryaBuddyRepository
+) : androidx.lifecycle.ViewModelProvider.Factory {
+    override fun <T : androidx.lifecycle.ViewModel> create(modelClass: Class<T>): T {
+        if (modelClass.isAssignableFrom(HistoryViewModel::class.java)) {
+            @Suppress("UNCHECKED_CAST")
+            return HistoryViewModel(repository) as T
+        }
+        throw IllegalArgumentException("Unknown ViewModel class")
+    }
+}
+
+class SearchViewModelFactory(
+    private val repository: BaryaBuddyRepository
+) : androidx.lifecycle.ViewModelProvider.Factory {
+    override fun <T : androidx.lifecycle.ViewModel> create(modelClass: Class<T>): T {
+        if (modelClass.isAssignableFrom(SearchViewModel::class.java)) {
+            @Suppress("UNCHECKED_CAST")
+            return SearchViewModel(repository) as T
+        }
+        throw IllegalArgumentException("Unknown ViewModel class")
+    }
+}
+
+class QueryMetricsViewModelFactory(
+    private val appContext: android.content.Context,
+    private val repository: BaryaBuddyRepository
+) : androidx.lifecycle.ViewModelProvider.Factory {
+    override fun <T : androidx.lifecycle.ViewModel> create(modelClass: Class<T>): T {
+        if (modelClass.isAssignableFrom(QueryMetricsViewModel::class.java)) {
+            @Suppress("UNCHECKED_CAST")
+            return QueryMetricsViewModel(appContext, repository.invalidationMetrics) as T
+        }
+        throw IllegalArgumentException("Unknown ViewModel class")
+    }
+}
@@ -0,0 +1,146 @@
+package com.baryabuddy.app.presentation.search
+
+import androidx.compose.foundation.layout.Arrangement
+import androidx.compose.foundation.layout.Box
+import androidx.compose.foundation.layout.Column
+import androidx.compose.foundation.layout.PaddingValues
+import androidx.compose.foundation.layout.fillMaxSize
+import androidx.compose.foundation.layout.fillMaxWidth
+import androidx.compose.foundation.layout.padding
+import androidx.compose.foundation.lazy.LazyColumn
+import androidx.compose.foundation.lazy.LazyRow
+import androidx.compose.foundation.lazy.items
+import androidx.compose.material.icons.Icons
+import androidx.compose.material.icons.filled.ArrowBack
+import androidx.compose.material.icons.filled.Search
+import androidx.compose.material3.ExperimentalMaterial3Api
+import androidx.compose.material3.FilterChip
+import androidx.compose.material3.Icon
+import androidx.compose.material3.IconButton
+import androidx.compose.material3.MaterialTheme
+import androidx.compose.material3.OutlinedTextField
+import androidx.compose.material3.Scaffold
+import androidx.compose.material3.Text
+import androidx.compose.material3.TopAppBar
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.collectAsState
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.rememberCoroutineScope
+import androidx.compose.ui.Alignment
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.unit.dp
+import com.baryabuddy.app.presentation.home.TransactionItem
+import kotlinx.coroutines.launch
+
+@OptIn(ExperimentalMaterial3Api::class)
+@Composable
+fun SearchScreen(
+    viewModel: SearchViewModel,
+    onBack: () -> Unit,
+    onEditTransaction: (Long) -> Unit
+) {
+    val query by viewModel.query.collectAsState()
+    val selectedCategoryId by viewModel.categoryId.collectAsState()
+    val selectedRange by viewModel.range.collectAsState()
+    val results by viewModel.results.collectAsState()
+    val categories by viewModel.categories.collectAsState(initial = emptyList())
+    val currency by viewModel.currency.collectAsState(initial = null)
+    val scope = rememberCoroutineScope()
+
+    Scaffold(
+        topBar = {
+            TopAppBar(
+                title = { Text("Search") },
+                navigationIcon = {
+                    IconButton(onClick = onBack) {
+                        Icon(
+                            imageVector = Icons.Default.ArrowBack,
+                            contentDescription = "Back"
+                        )
+                    }
+                }
+            )
+        }
+    ) { paddingValues ->
+        Column(
+            modifier = Modifier
+                .fillMaxSize()
+                .padding(paddingValues)
+        ) {
+            OutlinedTextField(
+                value = query,
+                onValueChange = { viewModel.setQuery(it) },
+                placeholder = { Text("Search descriptions") },
+                leadingIcon = {
+                    Icon(
+                        imageVector = Icons.Default.Search,
+                        contentDescription = null
+                    )
+                },
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .padding(horizontal = 16.dp, vertical = 8.dp),
+                singleLine = true
+            )
+
+            // Date range filter
+            LazyRow(
+                contentPadding = PaddingValues(horizontal = 16.dp),
+                horizontalArrangement = Arrangement.spacedBy(8.dp)
+            ) {
+                items(SearchRange.values().toList()) { range ->
+                    FilterChip(
+                        selected = range == selectedRange,
+                        onClick = { viewModel.setRange(range) },
+                        label = { Text(range.label) }
+                    )
+                }
+            }
+
+            // Category filter (tap the selected one again to clear it)
+            LazyRow(
+                contentPadding = PaddingValues(horizontal = 16.dp),
+                horizontalArrangement = Arrangement.spacedBy(8.dp)
+            ) {
+                items(categories, key = { it.id }) { category ->
+                    val categoryId = category.id.toInt()
+                    FilterChip(
+                        selected = categoryId == selectedCategoryId,
+                        onClick = {
+                            viewModel.setCategory(if (categoryId == selectedCategoryId) null else categoryId)
+                        },
+                        label = { Text(category.name) }
+                    )
+                }
+            }
+
+            if (results.isEmpty()) {
+                Box(
+                    modifier = Modifier.fillMaxSize(),
+                    contentAlignment = Alignment.Center
+                ) {
+                    Text(
+                        text = if (query.isBlank()) "Type to search your transactions" else "No matches",
+                        style = MaterialTheme.typography.bodyMedium,
+                        color = MaterialTheme.colorScheme.onSurface.copy(alpha = 0.6f)
+                    )
+                }
+            } else {
+                LazyColumn(modifier = Modifier.fillMaxSize()) {
+                    items(results, key = { it.id }) { row ->
+                        TransactionItem(
+                            row = row,
+                            currency = currency ?: "₱",
+                            onEdit = { onEditTransaction(row.id) },
+                            onDelete = {
+                                scope.launch {
+                                    viewModel.deleteTransaction(row.id)
+                                }
+                            }
+                        )
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.baryabuddy.app.presentation.search
+
+import androidx.lifecycle.ViewModel
+import androidx.lifecycle.viewModelScope
+import com.baryabuddy.app.data.database.entities.Category
+import com.baryabuddy.app.data.repository.BaryaBuddyRepository
+import com.baryabuddy.app.domain.model.TransactionRow
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.mapLatest
+import kotlinx.coroutines.flow.stateIn
+import java.time.LocalDate
+
+enum class SearchRange(val label: String) {
+    ALL_TIME("All time"),
+    THIS_MONTH("This month"),
+    LAST_30_DAYS("Last 30 days")
+}
+
+private data class SearchRequest(
+    val query: String,
+    val categoryId: Int?,
+    val range: SearchRange,
+    val version: Int
+)
+
+@OptIn(FlowPreview::class, ExperimentalCoroutinesApi::class)
+class SearchViewModel(
+    private val repository: BaryaBuddyRepository
+) : ViewModel() {
+
+    private val _query = MutableStateFlow("")
+    val query: StateFlow<String> = _query.asStateFlow()
+
+    private val _categoryId = MutableStateFlow<Int?>(null)
+    val categoryId: StateFlow<Int?> = _categoryId.asStateFlow()
+
+    private val _range = MutableStateFlow(SearchRange.ALL_TIME)
+    val range: StateFlow<SearchRange> = _range.asStateFlow()
+
+    // Bumped after a delete so the visible results are re-queried
+    private val version = MutableStateFlow(0)
+
+    val categories: Flow<List<Category>> = repository.getCategories()
+
+    val currency: Flow<String?> = repository.getUserProfile().map { it?.currency }
+
+    // ⌨️ Typing is debounced; filter taps apply at once. mapLatest cancels the query still
+    // running for the previous input (Room hands the cancellation down to SQLite).
+    val results: StateFlow<List<TransactionRow>> = combine(
+        _query.debounce(SEARCH_DEBOUNCE_MS),
+        _categoryId,
+        _range,
+        version
+    ) { query, categoryId, range, version ->
+        SearchRequest(query.trim(), categoryId, range, version)
+    }
+        .distinctUntilChanged()
+        .mapLatest { request -> search(request) }
+        .stateIn(viewModelScope, SharingStarted.WhileSubscribed(5_000), emptyList())
+
+    fun setQuery(query: String) {
+        _query.value = query
+    }
+
+    fun setCategory(categoryId: Int?) {
+        _categoryId.value = categoryId
+    }
+
+    fun setRange(range: SearchRange) {
+        _range.value = range
+    }
+
+    suspend fun deleteTransaction(transactionId: Long): Boolean {
+        return try {
+            val transaction = repository.getTransactionById(transactionId)
+            if (transaction != null) {
+                repository.deleteTransaction(transaction)
+                version.value++
+                true
+            } else {
+                false
+            }
+        } catch (e: Exception) {
+            false
+        }
+    }
+
+    private suspend fun search(request: SearchRequest): List<TransactionRow> {
+        if (request.query.isEmpty()) return emptyList()
+        val today = LocalDate.now()
+        val (startDay, endDay) = when (request.range) {
+            SearchRange.ALL_TIME -> null to null
+            SearchRange.THIS_MONTH -> today.withDayOfMonth(1).toEpochDay() to today.plusDays(1).toEpochDay()
+            SearchRange.LAST_30_DAYS -> today.minusDays(29).toEpochDay() to today.plusDays(1).toEpochDay()
+        }
+        return repository.searchTransactions(request.query, request.categoryId, startDay, endDay)
+    }
+
+    companion object {
+        private const val SEARCH_DEBOUNCE_MS = 250L
+    }
+}
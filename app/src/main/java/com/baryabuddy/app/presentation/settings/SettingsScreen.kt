@@ -1,16 +1,24 @@
 package com.baryabuddy.app.presentation.settings
 
+import androidx.activity.compose.rememberLauncherForActivityResult
+import androidx.activity.result.contract.ActivityResultContracts
+import androidx.compose.foundation.layout.Arrangement
 import androidx.compose.foundation.layout.Column
+import androidx.compose.foundation.layout.Row
 import androidx.compose.foundation.layout.Spacer
 import androidx.compose.foundation.layout.fillMaxWidth
 import androidx.compose.foundation.layout.height
 import androidx.compose.foundation.layout.padding
+import androidx.compose.foundation.lazy.LazyRow
+import androidx.compose.foundation.lazy.items
 import androidx.compose.foundation.rememberScrollState
 import androidx.compose.foundation.verticalScroll
 import androidx.compose.material3.Button
 import androidx.compose.material3.CircularProgressIndicator
 import androidx.compose.material3.ExperimentalMaterial3Api
+import androidx.compose.material3.FilterChip
 import androidx.compose.material3.ModalBottomSheet
+import androidx.compose.material3.OutlinedButton
 import androidx.compose.material3.OutlinedTextField
 import androidx.compose.material3.Text
 import androidx.compose.material3.rememberModalBottomSheetState
@@ -20,19 +28,56 @@ import androidx.compose.runtime.getValue
 import androidx.compose.runtime.rememberCoroutineScope
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
+import androidx.compose.ui.platform.LocalContext
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
+import com.baryabuddy.app.BuildConfig
+import com.baryabuddy.app.data.database.entities.IncomeFrequency
+import com.baryabuddy.app.data.transfer.ExportFormat
 import kotlinx.coroutines.launch
+import java.time.DayOfWeek
+import java.time.format.TextStyle
+import java.util.Locale
 
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
 fun SettingsScreen(
     viewModel: SettingsViewModel,
     onDismiss: () -> Unit,
-    onSettingsSaved: () -> Unit
+    onSettingsSaved: () -> Unit,
+    onOpenQueryMetrics: () -> Unit = {}
 ) {
     val uiState by viewModel.uiState.collectAsState()
+    val context = LocalContext.current
+    val importLauncher = rememberLauncherForActivityResult(ActivityResultContracts.OpenDocument()) { uri ->
+        uri?.let { selected ->
+            viewModel.importCsv {
+                context.contentResolver.openInputStream(selected)
+                    ?: throw java.io.FileNotFoundException("Cannot open $selected")
+            }
+        }
+    }
+    fun exportLauncherFor(format: ExportFormat) = { uri: android.net.Uri? ->
+        uri?.let { selected ->
+            viewModel.exportTransactions(
+                openOutput = {
+                    context.contentResolver.openOutputStream(selected)
+                        ?: throw java.io.FileNotFoundException("Cannot open $selected")
+                },
+                format = format
+            )
+        }
+        Unit
+    }
+    val exportCsvLauncher = rememberLauncherForActivityResult(
+        ActivityResultContracts.CreateDocument("text/csv"),
+        exportLauncherFor(ExportFormat.CSV)
+    )
+    val exportJsonLauncher = rememberLauncherForActivityResult(
+        ActivityResultContracts.CreateDocument("application/json"),
+        exportLauncherFor(ExportFormat.JSON)
+    )
     val sheetState = rememberModalBottomSheetState(skipPartiallyExpanded = true)
     val scope = rememberCoroutineScope()
 
@@ -66,11 +111,27 @@ fun SettingsScreen(
 
                 Spacer(modifier = Modifier.height(24.dp))
 
-                // Monthly Income
+                // How often income arrives; sets the budget period length
+                Row(
+                    modifier = Modifier.fillMaxWidth(),
+                    horizontalArrangement = Arrangement.spacedBy(8.dp)
+                ) {
+                    IncomeFrequency.values().forEach { frequency ->
+                        FilterChip(
+                            selected = frequency == uiState.incomeFrequency,
+                            onClick = { viewModel.setIncomeFrequency(frequency) },
+                            label = { Text(frequencyLabel(frequency)) }
+                        )
+                    }
+                }
+
+                Spacer(modifier = Modifier.height(8.dp))
+
+                // Income per period
                 OutlinedTextField(
-                    value = uiState.monthlyIncome,
-                    onValueChange = { viewModel.setMonthlyIncome(it) },
-                    label = { Text("Monthly Income") },
+                    value = uiState.income,
+                    onValueChange = { viewModel.setIncome(it) },
+                    label = { Text(if (uiState.incomeFrequency == IncomeFrequency.WEEKLY) "Weekly Income" else "Monthly Income") },
                     modifier = Modifier.fillMaxWidth(),
                     singleLine = true,
                     isError = uiState.incomeError != null,
@@ -79,6 +140,46 @@ fun SettingsScreen(
 
                 Spacer(modifier = Modifier.height(16.dp))
 
+                // When the period starts over
+                if (uiState.incomeFrequency == IncomeFrequency.WEEKLY) {
+                    Text(
+                        text = "Week starts on",
+                        fontSize = 14.sp,
+                        modifier = Modifier.fillMaxWidth()
+                    )
+                    LazyRow(
+                        modifier = Modifier.fillMaxWidth(),
+                        horizontalArrangement = Arrangement.spacedBy(8.dp)
+                    ) {
+                        items(DayOfWeek.values().toList()) { day ->
+                            FilterChip(
+                                selected = day.value.toString() == uiState.resetDay,
+                                onClick = { viewModel.setResetDay(day.value.toString()) },
+                                label = { Text(day.getDisplayName(TextStyle.SHORT, Locale.getDefault())) }
+                            )
+                        }
+                    }
+                    uiState.resetDayError?.let { error ->
+                        Text(
+                            text = error,
+                            color = androidx.compose.material3.MaterialTheme.colorScheme.error,
+                            fontSize = 12.sp
+                        )
+                    }
+                } else {
+                    OutlinedTextField(
+                        value = uiState.resetDay,
+                        onValueChange = { viewModel.setResetDay(it) },
+                        label = { Text("Reset Day of Month") },
+                        modifier = Modifier.fillMaxWidth(),
+                        singleLine = true,
+                        isError = uiState.resetDayError != null,
+                        supportingText = uiState.resetDayError?.let { { Text(it) } }
+                    )
+                }
+
+                Spacer(modifier = Modifier.height(16.dp))
+
                 // Fixed Bills
                 OutlinedTextField(
                     value = uiState.fixedBills,
@@ -130,8 +231,114 @@ fun SettingsScreen(
                 }
 
                 Spacer(modifier = Modifier.height(16.dp))
+
+                // Import from spreadsheet / bank statement
+                OutlinedButton(
+                    onClick = {
+                        importLauncher.launch(arrayOf("text/csv", "text/comma-separated-values", "text/plain"))
+                    },
+                    enabled = !uiState.isImporting,
+                    modifier = Modifier.fillMaxWidth()
+                ) {
+                    Text("Import CSV")
+                }
+
+                uiState.importStatus?.let { status ->
+                    Spacer(modifier = Modifier.height(8.dp))
+                    Text(
+                        text = status,
+                        fontSize = 12.sp
+                    )
+                }
+
+                Spacer(modifier = Modifier.height(8.dp))
+
+                // Export the whole ledger
+                Row(
+                    modifier = Modifier.fillMaxWidth(),
+                    horizontalArrangement = Arrangement.spacedBy(8.dp)
+                ) {
+                    OutlinedButton(
+                        onClick = { exportCsvLauncher.launch("baryabuddy-transactions.csv") },
+                        enabled = !uiState.isExporting,
+                        modifier = Modifier.weight(1f)
+                    ) {
+                        Text("Export CSV")
+                    }
+                    OutlinedButton(
+                        onClick = { exportJsonLauncher.launch("baryabuddy-transactions.json") },
+                        enabled = !uiState.isExporting,
+                        modifier = Modifier.weight(1f)
+                    ) {
+                        Text("Export JSON")
+                    }
+                }
+
+                uiState.exportStatus?.let { status ->
+                    Spacer(modifier = Modifier.height(8.dp))
+                    Text(
+                        text = status,
+                        fontSize = 12.sp
+                    )
+                }
+
+                // Incremental backup of everything changed since the last one
+                Spacer(modifier = Modifier.height(8.dp))
+                OutlinedButton(
+                    onClick = { viewModel.backUpNow() },
+                    enabled = !uiState.isBackingUp,
+                    modifier = Modifier.fillMaxWidth()
+                ) {
+                    Text("Back up now")
+                }
+
+                uiState.backupStatus?.let { status ->
+                    Spacer(modifier = Modifier.height(8.dp))
+                    Text(
+                        text = status,
+                        fontSize = 12.sp
+                    )
+                }
+
+                // 📊 Opt-in query metrics and their JSON export, in every build
+                Spacer(modifier = Modifier.height(8.dp))
+                OutlinedButton(
+                    onClick = onOpenQueryMetrics,
+                    modifier = Modifier.fillMaxWidth()
+                ) {
+                    Text("Perf diagnostics")
+                }
+
+                // 🧪 Debug-only stress data
+                if (BuildConfig.DEBUG) {
+                    Spacer(modifier = Modifier.height(8.dp))
+                    OutlinedButton(
+                        onClick = { viewModel.generateStressData(STRESS_DATA_ROWS) },
+                        enabled = !uiState.isGeneratingStressData,
+                        modifier = Modifier.fillMaxWidth()
+                    ) {
+                        Text("Generate stress data (debug)")
+                    }
+
+                    uiState.stressDataStatus?.let { status ->
+                        Spacer(modifier = Modifier.height(8.dp))
+                        Text(
+                            text = status,
+                            fontSize = 12.sp
+                        )
+                    }
+                }
+
+                Spacer(modifier = Modifier.height(16.dp))
             }
         }
     }
 }
 
+private const val STRESS_DATA_ROWS = 10_000
+
+private fun frequencyLabel(frequency: IncomeFrequency): String = when (frequency) {
+    IncomeFrequency.WEEKLY -> "Weekly"
+    IncomeFrequency.MONTHLY -> "Monthly"
+    IncomeFrequency.IRREGULAR -> "Irregular"
+}
@@ -5,21 +5,36 @@ import androidx.lifecycle.viewModelScope
 import com.baryabuddy.app.data.database.entities.IncomeFrequency
 import com.baryabuddy.app.data.database.entities.UserProfile
 import com.baryabuddy.app.data.repository.BaryaBuddyRepository
+import com.baryabuddy.app.data.transfer.ExportFormat
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
-import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.launch
+import java.io.InputStream
+import java.io.OutputStream
 
 data class SettingsUiState(
-    val monthlyIncome: String = "",
+    // Per budget period: one week for WEEKLY, one month otherwise
+    val income: String = "",
+    val incomeFrequency: IncomeFrequency = IncomeFrequency.MONTHLY,
+    // WEEKLY: day of week (1 = Monday ... 7 = Sunday); otherwise day of month (1-31)
+    val resetDay: String = "1",
     val fixedBills: String = "",
     val savingsGoal: String = "",
     val incomeError: String? = null,
+    val resetDayError: String? = null,
     val billsError: String? = null,
     val goalError: String? = null,
     val validationError: String? = null,
-    val isLoading: Boolean = false
+    val isLoading: Boolean = false,
+    val importStatus: String? = null,
+    val isImporting: Boolean = false,
+    val exportStatus: String? = null,
+    val isExporting: Boolean = false,
+    val backupStatus: String? = null,
+    val isBackingUp: Boolean = false,
+    val stressDataStatus: String? = null,
+    val isGeneratingStressData: Boolean = false
 )
 
 class SettingsViewModel(
@@ -36,11 +51,13 @@ class SettingsViewModel(
     private fun loadProfile() {
         viewModelScope.launch {
             _uiState.value = _uiState.value.copy(isLoading = true)
-            val profile = repository.getUserProfile().first()
+            val profile = repository.getUserProfileOnce()
             if (profile != null) {
                 // Convert centavos back to display amounts
                 _uiState.value = SettingsUiState(
-                    monthlyIncome = (profile.incomeAmount / 100.0).toString(),
+                    income = (profile.incomeAmount / 100.0).toString(),
+                    incomeFrequency = profile.incomeFrequency,
+                    resetDay = profile.resetDay.toString(),
                     fixedBills = (profile.fixedBillsAmount / 100.0).toString(),
                     savingsGoal = (profile.savingsGoalAmount / 100.0).toString(),
                     isLoading = false
@@ -51,13 +68,31 @@ class SettingsViewModel(
         }
     }
 
-    fun setMonthlyIncome(income: String) {
+    fun setIncome(income: String) {
         _uiState.value = _uiState.value.copy(
-            monthlyIncome = income,
+            income = income,
             incomeError = null
         )
     }
 
+    fun setIncomeFrequency(frequency: IncomeFrequency) {
+        val state = _uiState.value
+        // A day-of-month reset day means nothing for a weekly period (and vice versa)
+        val resetDay = state.resetDay.toIntOrNull()?.takeIf { it in resetDayRange(frequency) } ?: 1
+        _uiState.value = state.copy(
+            incomeFrequency = frequency,
+            resetDay = resetDay.toString(),
+            resetDayError = null
+        )
+    }
+
+    fun setResetDay(day: String) {
+        _uiState.value = _uiState.value.copy(
+            resetDay = day,
+            resetDayError = null
+        )
+    }
+
     fun setFixedBills(bills: String) {
         _uiState.value = _uiState.value.copy(
             fixedBills = bills,
@@ -73,9 +108,95 @@ class SettingsViewModel(
         )
     }
 
+    // 📥 Import a spreadsheet / bank-statement CSV, reporting progress as it streams in
+    fun importCsv(openInput: () -> InputStream) {
+        if (_uiState.value.isImporting) return
+        viewModelScope.launch {
+            _uiState.value = _uiState.value.copy(isImporting = true, importStatus = "Importing…")
+            try {
+                repository.importTransactionsCsv(openInput).collect { progress ->
+                    val rejected = if (progress.rowsRejected > 0) ", ${progress.rowsRejected} skipped" else ""
+                    _uiState.value = _uiState.value.copy(
+                        importStatus = if (progress.done) {
+                            "Imported ${progress.rowsImported} transactions$rejected"
+                        } else {
+                            "Imported ${progress.rowsImported} transactions…"
+                        }
+                    )
+                }
+            } catch (e: Exception) {
+                _uiState.value = _uiState.value.copy(importStatus = "Import failed: ${e.message}")
+            } finally {
+                _uiState.value = _uiState.value.copy(isImporting = false)
+            }
+        }
+    }
+
+    // 📤 Export the ledger as CSV or JSON, streamed straight from the database
+    fun exportTransactions(openOutput: () -> OutputStream, format: ExportFormat) {
+        if (_uiState.value.isExporting) return
+        viewModelScope.launch {
+            _uiState.value = _uiState.value.copy(isExporting = true, exportStatus = "Exporting…")
+            try {
+                repository.exportTransactions(openOutput, format).collect { progress ->
+                    _uiState.value = _uiState.value.copy(
+                        exportStatus = if (progress.done) {
+                            "Exported ${progress.rowsWritten} transactions"
+                        } else {
+                            "Exported ${progress.rowsWritten} of ${progress.totalRows}…"
+                        }
+                    )
+                }
+            } catch (e: Exception) {
+                _uiState.value = _uiState.value.copy(exportStatus = "Export failed: ${e.message}")
+            } finally {
+                _uiState.value = _uiState.value.copy(isExporting = false)
+            }
+        }
+    }
+
+    // 💾 Append new changes to the local backup file, then compact the change log behind it
+    fun backUpNow() {
+        if (_uiState.value.isBackingUp) return
+        viewModelScope.launch {
+            _uiState.value = _uiState.value.copy(isBackingUp = true, backupStatus = "Backing up…")
+            try {
+                val result = repository.backUpAndCompact()
+                _uiState.value = _uiState.value.copy(
+                    backupStatus = if (result.changesWritten == 0L) {
+                        "Backup is up to date"
+                    } else {
+                        "Backed up ${result.changesWritten} changes"
+                    }
+                )
+            } catch (e: Exception) {
+                _uiState.value = _uiState.value.copy(backupStatus = "Backup failed: ${e.message}")
+            } finally {
+                _uiState.value = _uiState.value.copy(isBackingUp = false)
+            }
+        }
+    }
+
+    // 🧪 Debug builds only: fill the ledger with synthetic data for perf checks
+    fun generateStressData(count: Int) {
+        if (_uiState.value.isGeneratingStressData) return
+        viewModelScope.launch {
+            _uiState.value = _uiState.value.copy(isGeneratingStressData = true, stressDataStatus = "Generating…")
+            try {
+                val written = repository.generateStressData(count)
+                _uiState.value = _uiState.value.copy(stressDataStatus = "Added $written synthetic transactions")
+            } catch (e: Exception) {
+                _uiState.value = _uiState.value.copy(stressDataStatus = "Generation failed: ${e.message}")
+            } finally {
+                _uiState.value = _uiState.value.copy(isGeneratingStressData = false)
+            }
+        }
+    }
+
     suspend fun saveProfile(): Boolean {
         val state = _uiState.value
-        val income = state.monthlyIncome.toDoubleOrNull() ?: 0.0
+        val income = state.income.toDoubleOrNull() ?: 0.0
+        val resetDay = state.resetDay.toIntOrNull()
         val bills = state.fixedBills.toDoubleOrNull() ?: 0.0
         val goal = state.savingsGoal.toDoubleOrNull() ?: 0.0
 
@@ -84,6 +205,16 @@ class SettingsViewModel(
             _uiState.value = state.copy(incomeError = "Income must be greater than 0")
             return false
         }
+        if (resetDay == null || resetDay !in resetDayRange(state.incomeFrequency)) {
+            _uiState.value = state.copy(
+                resetDayError = if (state.incomeFrequency == IncomeFrequency.WEEKLY) {
+                    "Pick the day your week starts"
+                } else {
+                    "Reset day must be between 1 and 31"
+                }
+            )
+            return false
+        }
         if (bills < 0) {
             _uiState.value = state.copy(billsError = "Bills cannot be negative")
             return false
@@ -107,15 +238,15 @@ class SettingsViewModel(
             val billsAmountCentavos = (bills * 100).toLong()
             val savingsGoalAmountCentavos = (goal * 100).toLong()
             
-            // Get existing profile to preserve incomeFrequency and resetDay
+            // Get existing profile to preserve currency
             val existingProfile = repository.getUserProfileOnce()
             val profile = UserProfile(
                 id = 1,
                 incomeAmount = incomeAmountCentavos,
                 fixedBillsAmount = billsAmountCentavos,
                 savingsGoalAmount = savingsGoalAmountCentavos,
-                incomeFrequency = existingProfile?.incomeFrequency ?: IncomeFrequency.MONTHLY,
-                resetDay = existingProfile?.resetDay ?: 1,
+                incomeFrequency = state.incomeFrequency,
+                resetDay = resetDay,
                 currency = existingProfile?.currency ?: "₱",
                 setupCompleted = true
             )
@@ -126,5 +257,8 @@ class SettingsViewModel(
             false
         }
     }
-}
 
+    private fun resetDayRange(frequency: IncomeFrequency): IntRange {
+        return if (frequency == IncomeFrequency.WEEKLY) 1..7 else 1..31
+    }
+}
@@ -0,0 +1,112 @@
+package com.baryabuddy.app.tracing
+
+import com.baryabuddy.app.util.JsonStrings
+import java.io.File
+import java.util.concurrent.TimeUnit
+
+/**
+ * In-process ring buffer of the sections recorded through [Traces], dumpable as a Chrome
+ * trace-event JSON file (opens in ui.perfetto.dev). Keeps the most recent [CAPACITY]
+ * sections; [dump] writes the ones that ended within the requested window.
+ *
+ * Off by default (release builds): [Traces] then only forwards to androidx.tracing.
+ */
+object TraceRecorder {
+
+    private class Event(
+        val name: String,
+        val startNanos: Long,
+        val endNanos: Long,
+        val threadId: Long,
+        val threadName: String,
+        // 0 for a synchronous section, otherwise the async section's cookie
+        val cookie: Int
+    )
+
+    private const val CAPACITY = 32_768
+
+    @Volatile
+    var enabled = false
+
+    private val events = arrayOfNulls<Event>(CAPACITY)
+    private var next = 0
+    private var size = 0
+
+    fun record(name: String, startNanos: Long, endNanos: Long, cookie: Int = 0) {
+        val thread = Thread.currentThread()
+        val event = Event(name, startNanos, endNanos, thread.id, thread.name, cookie)
+        synchronized(this) {
+            events[next] = event
+            next = (next + 1) % CAPACITY
+            if (size < CAPACITY) size++
+        }
+    }
+
+    fun clear() {
+        synchronized(this) {
+            events.fill(null)
+            next = 0
+            size = 0
+        }
+    }
+
+    // Writes the sections that ended in the last [lastSeconds] to [directory]; returns the file
+    fun dump(directory: File, lastSeconds: Long): File {
+        val cutoff = System.nanoTime() - TimeUnit.SECONDS.toNanos(lastSeconds)
+        val window = synchronized(this) {
+            (0 until size)
+                .mapNotNull { events[(next - size + it + CAPACITY) % CAPACITY] }
+                .filter { it.endNanos >= cutoff }
+        }
+
+        directory.mkdirs()
+        val file = File(directory, "baryabuddy-trace-${System.currentTimeMillis()}.json")
+        val out = StringBuilder()
+        out.append("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[")
+        var first = true
+        fun separator() {
+            if (!first) out.append(',')
+            first = false
+            out.append('\n')
+        }
+
+        // Thread names so Perfetto labels the tracks
+        window.distinctBy { it.threadId }.forEach { event ->
+            separator()
+            out.append("{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":0,\"tid\":").append(event.threadId)
+            out.append(",\"args\":{\"name\":")
+            JsonStrings.append(out, event.threadName)
+            out.append("}}")
+        }
+
+        window.forEach { event ->
+            if (event.cookie == 0) {
+                separator()
+                appendEvent(out, event, "X", event.startNanos)
+                out.append(",\"dur\":").append(micros(event.endNanos - event.startNanos)).append('}')
+            } else {
+                // Async sections may resume on another thread: a begin/end pair keyed by cookie
+                separator()
+                appendEvent(out, event, "b", event.startNanos)
+                out.append(",\"cat\":\"async\",\"id\":").append(event.cookie).append('}')
+                separator()
+                appendEvent(out, event, "e", event.endNanos)
+                out.append(",\"cat\":\"async\",\"id\":").append(event.cookie).append('}')
+            }
+        }
+        out.append("\n]}\n")
+
+        file.writeText(out.toString())
+        return file
+    }
+
+    private fun appendEvent(out: StringBuilder, event: Event, phase: String, timestampNanos: Long) {
+        out.append("{\"ph\":\"").append(phase).append("\",\"name\":")
+        JsonStrings.append(out, event.name)
+        out.append(",\"pid\":0,\"tid\":").append(event.threadId)
+        out.append(",\"ts\":").append(micros(timestampNanos))
+    }
+
+    // Trace-event timestamps are microseconds (fractions allowed)
+    private fun micros(nanos: Long): Double = nanos / 1_000.0
+}
@@ -0,0 +1,50 @@
+package com.baryabuddy.app.tracing
+
+import androidx.tracing.Trace
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Named sections on the app's hot paths. Each one goes to androidx.tracing (visible in a
+ * system trace / Perfetto capture) and, when [TraceRecorder.enabled], to the in-process
+ * recorder. With both off a section costs a flag read and a native isEnabled check.
+ * On a plain JVM (unit tests, JMH) only the recorder is used.
+ *
+ * Use [section] for synchronous work that stays on one thread and [asyncSection] around
+ * suspend calls (DAO reads/writes), which may resume on a different thread.
+ */
+object Traces {
+
+    @PublishedApi
+    internal val cookies = AtomicInteger()
+
+    // androidx.tracing needs the Android runtime; on a host JVM it ends up in android.os /
+    // android.util stubs that throw "not mocked"
+    @PublishedApi
+    internal val platformTracing: Boolean = System.getProperty("java.vm.name") == "Dalvik"
+
+    inline fun <T> section(name: String, block: () -> T): T {
+        val recording = TraceRecorder.enabled
+        val start = if (recording) System.nanoTime() else 0L
+        if (platformTracing) Trace.beginSection(name)
+        try {
+            return block()
+        } finally {
+            if (platformTracing) Trace.endSection()
+            if (recording) TraceRecorder.record(name, start, System.nanoTime())
+        }
+    }
+
+    inline fun <T> asyncSection(name: String, block: () -> T): T {
+        val recording = TraceRecorder.enabled
+        val start = if (recording) System.nanoTime() else 0L
+        // Never 0: the recorder uses 0 for synchronous sections
+        val cookie = cookies.incrementAndGet().let { if (it == 0) cookies.incrementAndGet() else it }
+        if (platformTracing) Trace.beginAsyncSection(name, cookie)
+        try {
+            return block()
+        } finally {
+            if (platformTracing) Trace.endAsyncSection(name, cookie)
+            if (recording) TraceRecorder.record(name, start, System.nanoTime(), cookie)
+        }
+    }
+}
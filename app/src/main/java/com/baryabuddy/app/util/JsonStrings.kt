@@ -0,0 +1,27 @@
+package com.baryabuddy.app.util
+
+// 🔤 Hand-rolled JSON string escaping for the streaming writers (export, backup, perf dumps),
+// which build each line in a reused StringBuilder instead of going through a JSON library.
+object JsonStrings {
+
+    // Appends [value] as a quoted JSON string, or the literal null
+    fun append(out: StringBuilder, value: String?) {
+        if (value == null) {
+            out.append("null")
+            return
+        }
+        out.append('"')
+        value.forEach { c ->
+            when {
+                c == '"' -> out.append("\\\"")
+                c == '\\' -> out.append("\\\\")
+                c == '\n' -> out.append("\\n")
+                c == '\r' -> out.append("\\r")
+                c == '\t' -> out.append("\\t")
+                c < ' ' -> out.append("\\u").append(String.format("%04x", c.code))
+                else -> out.append(c)
+            }
+        }
+        out.append('"')
+    }
+}
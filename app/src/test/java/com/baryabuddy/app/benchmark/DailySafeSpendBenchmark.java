@@ -0,0 +1,102 @@
+package com.baryabuddy.app.benchmark;
+
+import com.baryabuddy.app.data.database.entities.IncomeFrequency;
+import com.baryabuddy.app.data.database.entities.Transaction;
+import com.baryabuddy.app.data.database.entities.UserProfile;
+import com.baryabuddy.app.data.generator.SyntheticLedgerGenerator;
+import com.baryabuddy.app.domain.model.BudgetPeriod;
+import com.baryabuddy.app.domain.model.DailySafeSpendResult;
+import com.baryabuddy.app.domain.model.PeriodTotals;
+import com.baryabuddy.app.domain.usecase.BudgetPeriodCalculator;
+import com.baryabuddy.app.domain.usecase.CalculateDailySafeSpend;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import kotlin.sequences.SequencesKt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Daily Safe Spend with the period summed from the full transaction list vs. from
+ * already-aggregated {@link PeriodTotals} (what the dashboard uses).
+ *
+ * The ledger is the default synthetic one (two years ending on the fixture date), so
+ * {@code ledgerSize} only changes how dense it is. {@code incomeFrequency} picks the profile
+ * and with it the period: a week for WEEKLY, a month from the reset day otherwise. Run with
+ * {@code ./gradlew :app:dssBenchmark}; the gc profiler shows the list overload's per-call
+ * allocation, if any.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DailySafeSpendBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int ledgerSize;
+
+    @Param({"WEEKLY", "MONTHLY", "IRREGULAR"})
+    public IncomeFrequency incomeFrequency;
+
+    private final CalculateDailySafeSpend calculate = new CalculateDailySafeSpend();
+
+    private UserProfile profile;
+    private LocalDate today;
+    private BudgetPeriod period;
+    private List<Transaction> transactions;
+    private PeriodTotals periodTotals;
+
+    @Setup
+    public void setUp() {
+        // Amounts are per period; weekly ones reset on Friday (day of week 5)
+        profile = incomeFrequency == IncomeFrequency.WEEKLY
+                ? new UserProfile(1L, 375_000L, 75_000L, 50_000L, incomeFrequency, 5, "₱", true)
+                : new UserProfile(1L, 1_500_000L, 300_000L, 200_000L, incomeFrequency, 15, "₱", true);
+        today = SyntheticLedgerGenerator.Companion.getFIXTURE_END_DATE();
+        period = BudgetPeriodCalculator.Companion.compute(profile.getIncomeFrequency(), profile.getResetDay(), today);
+        transactions = SequencesKt.toList(new SyntheticLedgerGenerator().generate(ledgerSize));
+
+        long income = 0L;
+        long expense = 0L;
+        for (Transaction transaction : transactions) {
+            if (!period.containsEpochDay(transaction.getEpochDay())) continue;
+            if (transaction.getCategoryId() == null) {
+                income += transaction.getAmountCentavos();
+            } else {
+                expense += transaction.getAmountCentavos();
+            }
+        }
+        periodTotals = new PeriodTotals(income, expense);
+
+        // Both overloads must agree, or the comparison means nothing
+        DailySafeSpendResult fromList = listOverload();
+        DailySafeSpendResult fromTotals = periodTotalsOverload();
+        if (!fromList.equals(fromTotals)) {
+            throw new IllegalStateException(fromList + " != " + fromTotals);
+        }
+    }
+
+    @Benchmark
+    public DailySafeSpendResult listOverload() {
+        return calculate.invoke(profile, transactions, today, period);
+    }
+
+    @Benchmark
+    public DailySafeSpendResult periodTotalsOverload() {
+        return calculate.invoke(profile, periodTotals, today, period);
+    }
+}
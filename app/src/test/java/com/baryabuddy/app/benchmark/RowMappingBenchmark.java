@@ -0,0 +1,133 @@
+package com.baryabuddy.app.benchmark;
+
+import com.baryabuddy.app.data.database.entities.IncomeFrequency;
+import com.baryabuddy.app.data.database.entities.Transaction;
+import com.baryabuddy.app.data.generator.SyntheticLedgerGenerator;
+import com.baryabuddy.app.domain.model.BudgetPeriod;
+import com.baryabuddy.app.domain.usecase.BudgetPeriodCalculator;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import kotlin.sequences.SequencesKt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-row cost of a transaction's date when mapping query results: the LocalDateTime
+ * TypeConverter rows went through before version 7 (epoch millis to Instant to system zone to
+ * LocalDateTime, then toLocalDate() to test the budget period) vs. the dateUtcMillis/epochDay
+ * longs they carry now.
+ *
+ * Both sides read the same column arrays, the way Room's generated code reads a cursor, and
+ * count the rows inside the current monthly period, so only the date handling differs. Run
+ * with {@code ./gradlew :app:rowMappingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    // Columns as a cursor would hand them over
+    private long[] ids;
+    private long[] amounts;
+    private Integer[] categoryIds;
+    private String[] descriptions;
+    private long[] dateUtcMillis;
+    private long[] epochDays;
+    private long[] createdAt;
+
+    private BudgetPeriod period;
+
+    // The row shape before version 7: one LocalDateTime instead of the two longs
+    private static final class LegacyRow {
+        final long id;
+        final long amountCentavos;
+        final Integer categoryId;
+        final String description;
+        final LocalDateTime date;
+        final long createdAt;
+
+        LegacyRow(long id, long amountCentavos, Integer categoryId, String description, LocalDateTime date, long createdAt) {
+            this.id = id;
+            this.amountCentavos = amountCentavos;
+            this.categoryId = categoryId;
+            this.description = description;
+            this.date = date;
+            this.createdAt = createdAt;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        List<Transaction> ledger = SequencesKt.toList(new SyntheticLedgerGenerator().generate(rows));
+        ids = new long[rows];
+        amounts = new long[rows];
+        categoryIds = new Integer[rows];
+        descriptions = new String[rows];
+        dateUtcMillis = new long[rows];
+        epochDays = new long[rows];
+        createdAt = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            Transaction t = ledger.get(i);
+            ids[i] = i + 1L;
+            amounts[i] = t.getAmountCentavos();
+            categoryIds[i] = t.getCategoryId();
+            descriptions[i] = t.getDescription();
+            dateUtcMillis[i] = t.getDateUtcMillis();
+            epochDays[i] = t.getEpochDay();
+            createdAt[i] = t.getCreatedAt();
+        }
+        period = BudgetPeriodCalculator.Companion.compute(
+                IncomeFrequency.MONTHLY, 15, SyntheticLedgerGenerator.Companion.getFIXTURE_END_DATE());
+    }
+
+    // The old Converters.fromTimestamp, verbatim
+    private static LocalDateTime fromTimestamp(long value) {
+        return Instant.ofEpochMilli(value)
+                .atZone(ZoneId.systemDefault())
+                .toLocalDateTime();
+    }
+
+    @Benchmark
+    public int localDateTimeConverter(Blackhole blackhole) {
+        int inPeriod = 0;
+        for (int i = 0; i < rows; i++) {
+            LegacyRow row = new LegacyRow(ids[i], amounts[i], categoryIds[i], descriptions[i], fromTimestamp(dateUtcMillis[i]), createdAt[i]);
+            if (period.containsEpochDay(row.date.toLocalDate().toEpochDay())) inPeriod++;
+            blackhole.consume(row);
+        }
+        return inPeriod;
+    }
+
+    @Benchmark
+    public int epochDayLongs(Blackhole blackhole) {
+        int inPeriod = 0;
+        for (int i = 0; i < rows; i++) {
+            Transaction row = new Transaction(ids[i], amounts[i], categoryIds[i], descriptions[i], dateUtcMillis[i], epochDays[i], createdAt[i]);
+            if (period.containsEpochDay(row.getEpochDay())) inPeriod++;
+            blackhole.consume(row);
+        }
+        return inPeriod;
+    }
+}
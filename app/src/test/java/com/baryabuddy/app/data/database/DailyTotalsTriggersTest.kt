@@ -0,0 +1,115 @@
+package com.baryabuddy.app.data.database
+
+import android.app.Application
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.generator.SyntheticLedgerGenerator
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import kotlin.random.Random
+
+/**
+ * The trigger-maintained daily_totals must always equal a GROUP BY over transactions,
+ * whatever mix of inserts, updates and deletes got it there.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class DailyTotalsTriggersTest {
+
+    private data class DayTotals(val epochDay: Long, val income: Long, val expense: Long, val count: Long)
+
+    private lateinit var database: AppDatabase
+
+    @Before
+    fun setUp() {
+        database = inMemoryDatabase()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    private fun maintained() = days(
+        "SELECT epochDay, incomeCentavos, expenseCentavos, txCount FROM daily_totals ORDER BY epochDay"
+    )
+
+    private fun recomputed() = days(
+        "SELECT epochDay, " +
+            "SUM(CASE WHEN categoryId IS NULL THEN amountCentavos ELSE 0 END), " +
+            "SUM(CASE WHEN categoryId IS NOT NULL THEN amountCentavos ELSE 0 END), " +
+            "COUNT(*) FROM transactions GROUP BY epochDay ORDER BY epochDay"
+    )
+
+    private fun days(sql: String): List<DayTotals> =
+        database.openHelper.readableDatabase.query(sql).use { cursor ->
+            buildList {
+                while (cursor.moveToNext()) {
+                    add(DayTotals(cursor.getLong(0), cursor.getLong(1), cursor.getLong(2), cursor.getLong(3)))
+                }
+            }
+        }
+
+    private fun randomTransaction(random: Random, id: Long = 0L): Transaction {
+        val epochDay = 19_700L + random.nextLong(0, 40)
+        return Transaction(
+            id = id,
+            amountCentavos = random.nextLong(1, 200_000),
+            categoryId = if (random.nextInt(4) == 0) null else random.nextInt(1, 9),
+            dateUtcMillis = epochDay * 86_400_000L + random.nextLong(0, 86_400_000L),
+            epochDay = epochDay
+        )
+    }
+
+    @Test
+    fun randomWrites_matchARecomputation() = runBlocking {
+        val random = Random(2024)
+        val dao = database.transactionDao()
+        val ids = ArrayList<Long>()
+
+        repeat(3_000) { step ->
+            when {
+                ids.isEmpty() || random.nextInt(10) < 5 -> ids += dao.insert(randomTransaction(random))
+                random.nextInt(2) == 0 -> {
+                    // Update, often moving the row to another day or flipping income/expense
+                    val id = ids[random.nextInt(ids.size)]
+                    dao.update(randomTransaction(random, id))
+                }
+                else -> {
+                    val id = ids.removeAt(random.nextInt(ids.size))
+                    dao.delete(dao.getById(id)!!)
+                }
+            }
+            if (step % 250 == 0) assertEquals("step $step", recomputed(), maintained())
+        }
+        assertEquals(recomputed(), maintained())
+    }
+
+    @Test
+    fun batchedAndRawInserts_matchARecomputation() = runBlocking {
+        val random = Random(7)
+        database.transactionDao().insertAll(List(2_000) { randomTransaction(random) })
+        SyntheticLedgerGenerator().writeTo(database, 5_000)
+
+        assertEquals(recomputed(), maintained())
+    }
+
+    @Test
+    fun deletingEveryRowOfADay_removesTheDay() = runBlocking {
+        val dao = database.transactionDao()
+        val row = Transaction(amountCentavos = 500, categoryId = 1, dateUtcMillis = 0L, epochDay = 19_000L)
+        val first = dao.insert(row)
+        val second = dao.insert(row)
+
+        dao.delete(row.copy(id = first))
+        assertEquals(listOf(DayTotals(19_000L, 0L, 500L, 1L)), maintained())
+
+        dao.delete(row.copy(id = second))
+        assertEquals(emptyList<DayTotals>(), maintained())
+    }
+}
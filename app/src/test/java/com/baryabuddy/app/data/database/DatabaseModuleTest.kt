@@ -0,0 +1,85 @@
+package com.baryabuddy.app.data.database
+
+import android.app.Application
+import android.content.Context
+import androidx.room.InvalidationTracker
+import androidx.test.core.app.ApplicationProvider
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+// Uses the real on-disk database (and so the prepackaged seed asset), not an in-memory one
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class DatabaseModuleTest {
+
+    private val context = ApplicationProvider.getApplicationContext<Context>()
+
+    private fun seedCategoryIds(): List<Long> =
+        context.assets.open("seed/categories.csv").bufferedReader().useLines { lines ->
+            lines.drop(1).filter { it.isNotBlank() }.map { it.substringBefore(',').toLong() }.toList()
+        }
+
+    // Room refreshes observers off the writing thread; a user_profile write it has seen
+    // commit means every earlier categories invalidation has been delivered too
+    private suspend fun awaitObserversNotified(database: AppDatabase) {
+        val notified = CountDownLatch(1)
+        val barrier = object : InvalidationTracker.Observer("user_profile") {
+            override fun onInvalidated(tables: Set<String>) = notified.countDown()
+        }
+        database.invalidationTracker.addObserver(barrier)
+        try {
+            database.userProfileDao().update(database.userProfileDao().getProfileOnce()!!)
+            assertTrue(notified.await(5, TimeUnit.SECONDS))
+        } finally {
+            database.invalidationTracker.removeObserver(barrier)
+        }
+    }
+
+    @Test
+    fun seeding_runsOnceAndKeepsUserChanges() = runBlocking {
+        val expectedIds = seedCategoryIds()
+
+        // Registered before the first start, so it sees whatever seeding writes
+        val database = AppDatabase.getDatabase(context)
+        val categoryInvalidations = AtomicInteger()
+        database.invalidationTracker.addObserver(object : InvalidationTracker.Observer("categories") {
+            override fun onInvalidated(tables: Set<String>) {
+                categoryInvalidations.incrementAndGet()
+            }
+        })
+
+        DatabaseModule.initializeDatabase(context).join()
+        awaitObserversNotified(database)
+        // One transaction at most: every categories Flow re-queries once, not per seeded row
+        assertTrue("seeding invalidated categories ${categoryInvalidations.get()} times", categoryInvalidations.get() <= 1)
+        val afterFirstStart = categoryInvalidations.get()
+        assertEquals(expectedIds, database.categoryDao().getAllOnce().map { it.id }.sorted())
+        val profile = database.userProfileDao().getProfileOnce()!!
+        assertFalse(profile.setupCompleted)
+
+        // A later start must not touch what the user has set up since
+        database.userProfileDao().update(profile.copy(incomeAmount = 500_000, setupCompleted = true))
+        DatabaseModule.initializeDatabase(context).join()
+        awaitObserversNotified(database)
+        assertEquals(afterFirstStart, categoryInvalidations.get())
+        assertEquals(expectedIds, database.categoryDao().getAllOnce().map { it.id }.sorted())
+        assertEquals(500_000L, database.userProfileDao().getProfileOnce()!!.incomeAmount)
+
+        // Re-seeding (seed version bump / recreated file) replaces categories, keeps the profile
+        DatabaseModule.resetSeedVersion(context)
+        DatabaseModule.initializeDatabase(context).join()
+        awaitObserversNotified(database)
+        assertEquals(afterFirstStart + 1, categoryInvalidations.get())
+        assertEquals(expectedIds, database.categoryDao().getAllOnce().map { it.id }.sorted())
+        assertEquals(500_000L, database.userProfileDao().getProfileOnce()!!.incomeAmount)
+    }
+}
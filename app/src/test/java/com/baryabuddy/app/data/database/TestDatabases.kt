@@ -0,0 +1,33 @@
+package com.baryabuddy.app.data.database
+
+import android.content.Context
+import androidx.room.Room
+import androidx.room.RoomDatabase
+import androidx.test.core.app.ApplicationProvider
+import com.baryabuddy.app.data.repository.BaryaBuddyRepository
+import com.baryabuddy.app.data.transfer.BackupCheckpoints
+import com.baryabuddy.app.data.transfer.SyncSink
+import kotlinx.coroutines.CoroutineScope
+
+// 🧪 Fresh in-memory AppDatabase with the production onCreate callback (daily_totals and
+// change_log triggers). [configure] can add builder options such as a query callback.
+// Robolectric tests only.
+fun inMemoryDatabase(configure: RoomDatabase.Builder<AppDatabase>.() -> Unit = {}): AppDatabase {
+    val context = ApplicationProvider.getApplicationContext<Context>()
+    return Room.inMemoryDatabaseBuilder(context, AppDatabase::class.java)
+        .addCallback(AppDatabase.callback(context))
+        .allowMainThreadQueries()
+        .apply(configure)
+        .build()
+}
+
+// 🧪 Repository over [database], by default with no coalescing delay so tests see writes immediately
+fun testRepository(
+    database: AppDatabase,
+    scope: CoroutineScope,
+    syncSink: SyncSink = SyncSink.LocalFileOnly,
+    invalidationWindowMillis: Long = 0L
+): BaryaBuddyRepository {
+    val context = ApplicationProvider.getApplicationContext<Context>()
+    return BaryaBuddyRepository(database, scope, BackupCheckpoints(context), syncSink, invalidationWindowMillis)
+}
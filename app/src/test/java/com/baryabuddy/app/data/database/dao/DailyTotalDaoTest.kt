@@ -0,0 +1,90 @@
+package com.baryabuddy.app.data.database.dao
+
+import android.app.Application
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.IncomeFrequency
+import com.baryabuddy.app.data.database.entities.UserProfile
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import com.baryabuddy.app.data.generator.SyntheticLedgerGenerator
+import com.baryabuddy.app.domain.model.BudgetPeriod
+import com.baryabuddy.app.domain.model.PeriodTotals
+import com.baryabuddy.app.domain.usecase.BudgetPeriodCalculator
+import com.baryabuddy.app.domain.usecase.CalculateDailySafeSpend
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class DailyTotalDaoTest {
+
+    private lateinit var database: AppDatabase
+
+    @Before
+    fun setUp() = runBlocking {
+        database = inMemoryDatabase()
+        LedgerFixture.writeTo(database)
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    private fun expected(period: BudgetPeriod): PeriodTotals {
+        val rows = LedgerFixture.transactions.filter { period.containsEpochDay(it.epochDay) }
+        return PeriodTotals(
+            incomeCentavos = rows.filter { it.categoryId == null }.sumOf { it.amountCentavos },
+            expenseCentavos = rows.filter { it.categoryId != null }.sumOf { it.amountCentavos }
+        )
+    }
+
+    // Every period of every frequency/resetDay the history covers
+    private fun periods(): List<BudgetPeriod> {
+        val end = SyntheticLedgerGenerator.FIXTURE_END_DATE
+        val settings = listOf(IncomeFrequency.MONTHLY to 1, IncomeFrequency.MONTHLY to 15, IncomeFrequency.MONTHLY to 31, IncomeFrequency.WEEKLY to 5)
+        return settings.flatMap { (frequency, resetDay) ->
+            generateSequence(end) { it.minusDays(7) }
+                .take(110)
+                .map { BudgetPeriodCalculator.compute(frequency, resetDay, it) }
+                .distinct()
+                .toList()
+        }
+    }
+
+    @Test
+    fun periodTotals_matchASumOverTheLedger() = runBlocking {
+        val dao = database.dailyTotalDao()
+        periods().forEach { period ->
+            assertEquals(period.toString(), expected(period), dao.getTotalsBetweenOnce(period.startEpochDay, period.endEpochDay))
+        }
+    }
+
+    @Test
+    fun emptyRange_isZero() = runBlocking {
+        val future = SyntheticLedgerGenerator.FIXTURE_END_DATE.plusDays(1).toEpochDay()
+        assertEquals(PeriodTotals(), database.dailyTotalDao().getTotalsBetweenOnce(future, future + 30))
+    }
+
+    @Test
+    fun dailySafeSpend_fromTotals_matchesTheListOverload() = runBlocking {
+        val calculate = CalculateDailySafeSpend()
+        val today = SyntheticLedgerGenerator.FIXTURE_END_DATE
+        listOf(
+            UserProfile(incomeAmount = 1_500_000, fixedBillsAmount = 300_000, savingsGoalAmount = 200_000, resetDay = 15),
+            UserProfile(incomeAmount = 250_000, incomeFrequency = IncomeFrequency.WEEKLY, resetDay = 5)
+        ).forEach { profile ->
+            val period = BudgetPeriodCalculator.compute(profile.incomeFrequency, profile.resetDay, today)
+            val totals = database.dailyTotalDao().getTotalsBetweenOnce(period.startEpochDay, period.endEpochDay)
+            assertEquals(
+                calculate(profile, LedgerFixture.transactions, today, period),
+                calculate(profile, totals, today, period)
+            )
+        }
+    }
+}
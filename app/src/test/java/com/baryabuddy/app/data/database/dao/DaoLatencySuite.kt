@@ -0,0 +1,182 @@
+package com.baryabuddy.app.data.database.dao
+
+import android.app.Application
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import com.baryabuddy.app.data.generator.SyntheticLedgerGenerator
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.json.JSONObject
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.File
+import java.time.ZoneOffset
+import java.util.Locale
+import kotlin.math.ceil
+
+/**
+ * ⏱️ p50/p99 latency of every TransactionDao and DailyTotalDao method on synthetic ledgers of
+ * each of [SIZES] rows. Writes a JSON report and fails when a method got slower than its
+ * entry in the checked-in baseline allows ([TOLERANCE] times plus [SLACK_MS]).
+ *
+ * It builds a 100k-row ledger, so it only runs through ./gradlew daoLatencyTest, which also
+ * passes the report and baseline paths. -PupdateDaoBaseline rewrites the baseline from the
+ * current run instead of comparing.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class DaoLatencySuite {
+
+    private class Latency(val p50Ms: Double, val p99Ms: Double)
+
+    @Test
+    fun latency_staysWithinBaseline() = runBlocking {
+        val results = LinkedHashMap<String, Latency>()
+        SIZES.forEach { size -> measure(size).forEach { (method, latency) -> results["$size/$method"] = latency } }
+
+        val report = toJson(results)
+        File(System.getProperty("daoLatency.report") ?: DEFAULT_REPORT).apply {
+            parentFile?.mkdirs()
+            writeText(report)
+        }
+
+        val baselineFile = File(System.getProperty("daoLatency.baseline") ?: DEFAULT_BASELINE)
+        if (System.getProperty("daoLatency.updateBaseline").toBoolean()) {
+            baselineFile.writeText(report)
+            return@runBlocking
+        }
+
+        val baseline = readBaseline(baselineFile)
+        val regressions = results.mapNotNull { (key, latency) ->
+            val expected = baseline[key] ?: return@mapNotNull "$key: no baseline entry"
+            when {
+                latency.p50Ms > allowed(expected.p50Ms) -> "$key: p50 ${format(latency.p50Ms)} ms, baseline ${format(expected.p50Ms)} ms"
+                latency.p99Ms > allowed(expected.p99Ms) -> "$key: p99 ${format(latency.p99Ms)} ms, baseline ${format(expected.p99Ms)} ms"
+                else -> null
+            }
+        }
+        assertTrue(regressions.joinToString("\n"), regressions.isEmpty())
+    }
+
+    private suspend fun measure(size: Int): List<Pair<String, Latency>> {
+        val database = inMemoryDatabase()
+        try {
+            database.categoryDao().insertAll(LedgerFixture.categories)
+            SyntheticLedgerGenerator().writeTo(database, size)
+            return measureReads(database, size) + measureWrites(database)
+        } finally {
+            database.close()
+        }
+    }
+
+    // 📖 Reads, on the last month of the ledger and a keyset cursor in its middle
+    private suspend fun measureReads(database: AppDatabase, size: Int): List<Pair<String, Latency>> {
+        val dao = database.transactionDao()
+        val totals = database.dailyTotalDao()
+        val month = SyntheticLedgerGenerator.FIXTURE_END_DATE.withDayOfMonth(1)
+        val monthStart = month.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli()
+        val nextMonthStart = month.plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli()
+        val firstDay = month.toEpochDay()
+        val endDay = month.plusMonths(1).toEpochDay()
+        val middle = dao.getRecentRowsOnce(size / 2).last()
+
+        return listOf(
+            "getAll" to time(FULL_READ_SAMPLES) { dao.getAll().first() },
+            "getByMonth" to time { dao.getByMonth(monthStart, nextMonthStart).first() },
+            "getTotalByMonth" to time { dao.getTotalByMonth(monthStart, nextMonthStart) },
+            "getByEpochDays" to time { dao.getByEpochDays(firstDay, endDay).first() },
+            "getRecent" to time { dao.getRecent(10).first() },
+            "getRecentRowsOnce" to time { dao.getRecentRowsOnce(10) },
+            "getPageBefore" to time { dao.getPageBefore(middle.dateUtcMillis, middle.createdAt, middle.id, PAGE_SIZE) },
+            "getPageFrom" to time { dao.getPageFrom(middle.dateUtcMillis, middle.createdAt, middle.id, PAGE_SIZE) },
+            "getPageAfter" to time { dao.getPageAfter(middle.dateUtcMillis, middle.createdAt, middle.id, PAGE_SIZE) },
+            "search" to time { dao.search(SEARCH_MATCH, null, null, null, SEARCH_LIMIT) },
+            "searchFiltered" to time { dao.search(SEARCH_MATCH, 1, firstDay, endDay, SEARCH_LIMIT) },
+            "getById" to time { dao.getById(middle.id) },
+            "getTotalsBetweenOnce" to time { totals.getTotalsBetweenOnce(firstDay, endDay) }
+        )
+    }
+
+    // ✍️ Writes: single inserts, then updates and deletes of those same rows
+    private suspend fun measureWrites(database: AppDatabase): List<Pair<String, Latency>> {
+        val dao = database.transactionDao()
+        val row = Transaction(amountCentavos = 15_000, categoryId = 1, description = "Lunch", dateUtcMillis = 0, epochDay = 0)
+        val inserted = ArrayList<Long>()
+
+        return listOf(
+            "insert" to time { inserted += dao.insert(row) },
+            "insertAll" to time { dao.insertAll(List(BATCH_SIZE) { row }) },
+            "update" to time { i -> dao.update(row.copy(id = inserted[i], amountCentavos = 20_000)) },
+            "delete" to time { i -> dao.delete(row.copy(id = inserted[i])) }
+        )
+    }
+
+    // Runs [call] WARMUP times untimed, then [samples] times timed; it gets the run index
+    private suspend fun time(samples: Int = SAMPLES, call: suspend (Int) -> Unit): Latency {
+        repeat(WARMUP) { call(it) }
+        val nanos = LongArray(samples)
+        for (i in 0 until samples) {
+            val start = System.nanoTime()
+            call(WARMUP + i)
+            nanos[i] = System.nanoTime() - start
+        }
+        nanos.sort()
+        return Latency(percentileMs(nanos, 0.50), percentileMs(nanos, 0.99))
+    }
+
+    // Nearest-rank percentile of sorted samples
+    private fun percentileMs(sorted: LongArray, percentile: Double): Double =
+        sorted[(ceil(percentile * sorted.size).toInt() - 1).coerceIn(0, sorted.size - 1)] / 1_000_000.0
+
+    private fun allowed(baselineMs: Double) = baselineMs * TOLERANCE + SLACK_MS
+
+    private fun toJson(results: Map<String, Latency>): String {
+        val out = StringBuilder()
+        out.append("{\"capturedAt\":").append(System.currentTimeMillis()).append(",\"results\":{")
+        results.entries.forEachIndexed { index, (key, latency) ->
+            if (index > 0) out.append(',')
+            out.append("\n\"").append(key).append("\":{\"p50Ms\":").append(format(latency.p50Ms))
+                .append(",\"p99Ms\":").append(format(latency.p99Ms)).append('}')
+        }
+        out.append("\n}}\n")
+        return out.toString()
+    }
+
+    private fun readBaseline(file: File): Map<String, Latency> {
+        val results = JSONObject(file.readText()).getJSONObject("results")
+        return results.keys().asSequence().associateWith { key ->
+            val entry = results.getJSONObject(key)
+            Latency(entry.getDouble("p50Ms"), entry.getDouble("p99Ms"))
+        }
+    }
+
+    private fun format(ms: Double) = String.format(Locale.ROOT, "%.3f", ms)
+
+    private companion object {
+        val SIZES = listOf(1_000, LedgerFixture.SIZE, 100_000)
+
+        const val WARMUP = 5
+        const val SAMPLES = 50
+        // getAll maps the whole ledger each run
+        const val FULL_READ_SAMPLES = 10
+        const val PAGE_SIZE = 30
+        const val BATCH_SIZE = 100
+
+        // Generated "Milk tea" rows, about one in twenty: the search sorts every match
+        const val SEARCH_MATCH = "milk* tea*"
+        const val SEARCH_LIMIT = 50
+
+        // A run fails when a percentile exceeds baseline * TOLERANCE + SLACK_MS; the slack
+        // keeps sub-millisecond queries from failing on scheduler noise
+        const val TOLERANCE = 1.5
+        const val SLACK_MS = 1.0
+
+        // Used when run outside Gradle (working directory = app/)
+        const val DEFAULT_REPORT = "build/reports/dao-latency.json"
+        const val DEFAULT_BASELINE = "src/test/resources/dao-latency-baseline.json"
+    }
+}
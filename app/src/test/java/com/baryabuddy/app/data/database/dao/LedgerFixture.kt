@@ -0,0 +1,34 @@
+package com.baryabuddy.app.data.database.dao
+
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.Category
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.generator.SyntheticLedgerGenerator
+
+// 🧪 A heavy user's two years: 20k synthetic rows, written the way stress data is (raw
+// inserts, triggers firing), plus the seeded categories for the row join.
+internal object LedgerFixture {
+
+    const val SIZE = 20_000
+
+    val categories = listOf(
+        Category(id = 1, name = "Food & Canteen", icon = "food", color = 1),
+        Category(id = 2, name = "Commute", icon = "transport", color = 2),
+        Category(id = 3, name = "Load & Data", icon = "load", color = 3),
+        Category(id = 4, name = "Gimik / Fun", icon = "fun", color = 4),
+        Category(id = 5, name = "Lazada / Shopee", icon = "shopping", color = 5),
+        Category(id = 6, name = "Academics", icon = "school", color = 6),
+        Category(id = 7, name = "Subscriptions", icon = "subscriptions", color = 7),
+        Category(id = 8, name = "Other", icon = "other", color = 8)
+    )
+
+    // The rows as written, with the ids a fresh database hands out (1..SIZE in order)
+    val transactions: List<Transaction> by lazy {
+        SyntheticLedgerGenerator().generate(SIZE).mapIndexed { index, row -> row.copy(id = index + 1L) }.toList()
+    }
+
+    suspend fun writeTo(database: AppDatabase) {
+        database.categoryDao().insertAll(categories)
+        SyntheticLedgerGenerator().writeTo(database, SIZE)
+    }
+}
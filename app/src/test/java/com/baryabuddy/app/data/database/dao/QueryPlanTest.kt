@@ -0,0 +1,129 @@
+package com.baryabuddy.app.data.database.dao
+
+import android.app.Application
+import androidx.sqlite.db.SimpleSQLiteQuery
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.Collections
+
+/**
+ * Runs every read query of TransactionDao and DailyTotalDao, captures the SQL Room actually
+ * sends (through a query callback), and checks its EXPLAIN QUERY PLAN: no SCAN of
+ * transactions or daily_totals and no temp B-tree sort, except where noted in
+ * [INDEX_WALK_ALLOWED] and [SORT_ALLOWED].
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class QueryPlanTest {
+
+    private class Statement(val sql: String, val args: List<Any?>)
+
+    private val captured = Collections.synchronizedList(ArrayList<Statement>())
+    private lateinit var database: AppDatabase
+
+    @Before
+    fun setUp() = runBlocking {
+        database = inMemoryDatabase {
+            setQueryCallback({ sql, args -> captured += Statement(sql, args.toList()) }, Runnable::run)
+        }
+        database.categoryDao().insertAll(LedgerFixture.categories)
+        database.transactionDao().insert(
+            Transaction(amountCentavos = 15_000, categoryId = 1, description = "Lunch", dateUtcMillis = 1_000, epochDay = 0, createdAt = 1_000)
+        )
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    // One call per read query, keyed by DAO method name
+    private val transactionQueries: Map<String, suspend (TransactionDao) -> Unit> = mapOf(
+        "getAll" to { it.getAll().first() },
+        "getByMonth" to { it.getByMonth(0, Long.MAX_VALUE).first() },
+        "getTotalByMonth" to { it.getTotalByMonth(0, Long.MAX_VALUE) },
+        "getByEpochDays" to { it.getByEpochDays(0, 30).first() },
+        "getRecent" to { it.getRecent(10).first() },
+        "getRecentRowsOnce" to { it.getRecentRowsOnce(10) },
+        "getPageBefore" to { it.getPageBefore(1_000, 1_000, 1, 30) },
+        "getPageFrom" to { it.getPageFrom(1_000, 1_000, 1, 30) },
+        "getPageAfter" to { it.getPageAfter(1_000, 1_000, 1, 30) },
+        "search" to { it.search("lunch*", 1, 0, 30, 50) },
+        "getById" to { it.getById(1) }
+    )
+
+    private val dailyTotalQueries: Map<String, suspend (DailyTotalDao) -> Unit> = mapOf(
+        "getTotalsBetweenOnce" to { it.getTotalsBetweenOnce(0, 30) }
+    )
+
+    @Test
+    fun everyReadQuery_isCovered() {
+        assertEquals(methodNames(TransactionDao::class.java) - WRITES, transactionQueries.keys)
+        assertEquals(methodNames(DailyTotalDao::class.java), dailyTotalQueries.keys)
+    }
+
+    private fun methodNames(dao: Class<*>): Set<String> =
+        dao.declaredMethods.map { it.name }.filterNot { '$' in it }.toSet()
+
+    @Test
+    fun everyReadQuery_usesAnIndex() = runBlocking {
+        val problems = ArrayList<String>()
+        transactionQueries.forEach { (name, query) -> problems += check(name) { query(database.transactionDao()) } }
+        dailyTotalQueries.forEach { (name, query) -> problems += check(name) { query(database.dailyTotalDao()) } }
+
+        assertTrue(problems.joinToString("\n"), problems.isEmpty())
+    }
+
+    private suspend fun check(name: String, run: suspend () -> Unit): List<String> {
+        captured.clear()
+        run()
+        val statements = captured.filter { it.sql.trimStart().startsWith("SELECT", ignoreCase = true) && LEDGER_TABLE.containsMatchIn(it.sql) }
+        if (statements.isEmpty()) return listOf("$name: no SQL captured")
+
+        return statements.flatMap { statement ->
+            val plan = explain(statement)
+            plan.filter { scansLedger(it) && !(name in INDEX_WALK_ALLOWED && "USING" in it) }.map { "$name: scans - $it" } +
+                plan.filter { it.startsWith("USE TEMP B-TREE") && name !in SORT_ALLOWED }.map { "$name: sorts - $it" }
+        }
+    }
+
+    private fun explain(statement: Statement): List<String> =
+        database.openHelper.writableDatabase
+            .query(SimpleSQLiteQuery("EXPLAIN QUERY PLAN ${statement.sql}", statement.args.toTypedArray()))
+            .use { cursor ->
+                val detail = cursor.getColumnIndexOrThrow("detail")
+                buildList { while (cursor.moveToNext()) add(cursor.getString(detail)) }
+            }
+
+    // "SCAN transactions" / "SCAN t" (new format) or "SCAN TABLE transactions AS t" (old)
+    private fun scansLedger(step: String): Boolean {
+        if (!step.startsWith("SCAN ")) return false
+        val table = step.removePrefix("SCAN ").removePrefix("TABLE ").substringBefore(' ')
+        return table in SCANNED_NAMES
+    }
+
+    private companion object {
+        val WRITES = setOf("insert", "insertAll", "update", "delete")
+        val LEDGER_TABLE = Regex("\\b(transactions|daily_totals)\\b")
+        val SCANNED_NAMES = setOf("transactions", "t", "daily_totals")
+
+        // Newest-first reads that walk the (dateUtcMillis, createdAt) index in order: the
+        // recent reads stop after LIMIT rows, getAll returns every row by contract.
+        val INDEX_WALK_ALLOWED = setOf("getAll", "getRecent", "getRecentRowsOnce")
+
+        // Sorts over rows an index has already narrowed down, never over the whole table:
+        // getByEpochDays orders one epochDay range; search orders only the FTS matches.
+        val SORT_ALLOWED = setOf("getByEpochDays", "search")
+    }
+}
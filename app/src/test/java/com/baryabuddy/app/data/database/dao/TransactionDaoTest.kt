@@ -0,0 +1,100 @@
+package com.baryabuddy.app.data.database.dao
+
+import android.app.Application
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import com.baryabuddy.app.domain.model.TransactionRow
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class TransactionDaoTest {
+
+    private lateinit var database: AppDatabase
+    private lateinit var dao: TransactionDao
+
+    @Before
+    fun setUp() = runBlocking {
+        database = inMemoryDatabase()
+        dao = database.transactionDao()
+        LedgerFixture.writeTo(database)
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    private val newestFirst = compareByDescending<Transaction> { it.dateUtcMillis }
+        .thenByDescending { it.createdAt }
+        .thenByDescending { it.id }
+
+    private fun row(t: Transaction): TransactionRow {
+        val category = LedgerFixture.categories.firstOrNull { it.id == t.categoryId?.toLong() }
+        return TransactionRow(
+            id = t.id,
+            amountCentavos = t.amountCentavos,
+            categoryId = t.categoryId,
+            description = t.description,
+            dateUtcMillis = t.dateUtcMillis,
+            createdAt = t.createdAt,
+            categoryName = category?.name,
+            categoryIcon = category?.icon,
+            categoryColor = category?.color
+        )
+    }
+
+    @Test
+    fun recentRows_areTheNewestWithTheirCategory() = runBlocking {
+        val expected = LedgerFixture.transactions.sortedWith(newestFirst).take(10).map(::row)
+
+        assertEquals(expected, dao.getRecentRowsOnce(10))
+    }
+
+    @Test
+    fun recentRows_breakTiesOnId() = runBlocking {
+        val newest = LedgerFixture.transactions.maxOf { it.dateUtcMillis } + 1_000
+        val tied = Transaction(amountCentavos = 100, categoryId = 1, dateUtcMillis = newest, epochDay = 0L, createdAt = newest)
+        val ids = List(3) { dao.insert(tied) }
+
+        assertEquals(ids.reversed(), dao.getRecentRowsOnce(3).map { it.id })
+    }
+
+    @Test
+    fun keysetPages_walkTheWholeLedgerOnce() = runBlocking {
+        val pageSize = 200
+        val walked = ArrayList<TransactionRow>(LedgerFixture.SIZE)
+        var page = dao.getRecentRowsOnce(pageSize)
+        while (page.isNotEmpty()) {
+            walked += page
+            val last = page.last()
+            page = dao.getPageBefore(last.dateUtcMillis, last.createdAt, last.id, pageSize)
+        }
+
+        assertEquals(LedgerFixture.transactions.sortedWith(newestFirst).map(::row), walked)
+    }
+
+    @Test
+    fun pageAfter_andPageFrom_returnTheNeighbouringSlices() = runBlocking {
+        val all = LedgerFixture.transactions.sortedWith(newestFirst).map(::row)
+        val anchor = all[5_000]
+
+        // Newer rows come back oldest first
+        assertEquals(
+            all.subList(4_950, 5_000),
+            dao.getPageAfter(anchor.dateUtcMillis, anchor.createdAt, anchor.id, 50).reversed()
+        )
+        assertEquals(
+            all.subList(5_000, 5_050),
+            dao.getPageFrom(anchor.dateUtcMillis, anchor.createdAt, anchor.id, 50)
+        )
+    }
+}
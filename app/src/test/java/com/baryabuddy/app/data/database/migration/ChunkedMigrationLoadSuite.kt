@@ -0,0 +1,89 @@
+package com.baryabuddy.app.data.database.migration
+
+import android.app.Application
+import androidx.sqlite.db.SupportSQLiteDatabase
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import com.baryabuddy.app.data.generator.SyntheticLedgerGenerator
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * 🐢 The worked example for ChunkedMigration: copies a 1M-row generated ledger into a new
+ * table through ChunkedMigrationRunner, the way a future transactions rebuild would, and
+ * checks that every chunk is short enough not to stall the reads and writes between chunks.
+ *
+ * Slow (it writes a million rows first), so it only runs through ./gradlew migrationLoadTest.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class ChunkedMigrationLoadSuite {
+
+    // transactions -> transactions_copy, in id order
+    private class CopyLedger : ChunkedMigration("load_copy_ledger") {
+        val chunkNanos = ArrayList<Long>()
+        var finished = false
+
+        override fun countRemaining(db: SupportSQLiteDatabase, afterKey: Long): Long =
+            db.query("SELECT COUNT(*) FROM transactions WHERE id > ?", arrayOf<Any>(afterKey))
+                .use { it.moveToFirst(); it.getLong(0) }
+
+        override fun migrateChunk(db: SupportSQLiteDatabase, afterKey: Long, limit: Int): ChunkResult? {
+            val start = System.nanoTime()
+            val (lastKey, rows) = db.query(
+                "SELECT MAX(id), COUNT(*) FROM (SELECT id FROM transactions WHERE id > ? ORDER BY id LIMIT ?)",
+                arrayOf<Any>(afterKey, limit)
+            ).use { it.moveToFirst(); it.getLong(0) to it.getInt(1) }
+            if (rows == 0) return null
+
+            db.execSQL(
+                "INSERT INTO transactions_copy SELECT * FROM transactions WHERE id > ? AND id <= ?",
+                arrayOf<Any>(afterKey, lastKey)
+            )
+            chunkNanos += System.nanoTime() - start
+            return ChunkResult(lastKey, rows)
+        }
+
+        override fun finish(db: SupportSQLiteDatabase) {
+            finished = true
+        }
+    }
+
+    @Test
+    fun millionRowCopy_runsInShortChunks() = runBlocking {
+        val database = inMemoryDatabase()
+        try {
+            SyntheticLedgerGenerator().writeTo(database, ROWS)
+            val db = database.openHelper.writableDatabase
+            db.execSQL("CREATE TABLE transactions_copy AS SELECT * FROM transactions WHERE 0")
+
+            val migration = CopyLedger()
+            val start = System.nanoTime()
+            ChunkedMigrationRunner(database, listOf(migration)).runPending()
+            val totalMillis = (System.nanoTime() - start) / 1_000_000
+
+            val copied = db.query("SELECT COUNT(*) FROM transactions_copy").use { it.moveToFirst(); it.getLong(0) }
+            assertEquals(ROWS.toLong(), copied)
+            assertTrue(migration.finished)
+            assertEquals(ROWS / ChunkedMigrationRunner.DEFAULT_CHUNK_SIZE, migration.chunkNanos.size)
+
+            val sorted = migration.chunkNanos.sorted()
+            val p50Millis = sorted[sorted.size / 2] / 1_000_000.0
+            val maxMillis = sorted.last() / 1_000_000.0
+            println("ChunkedMigration over $ROWS rows: $totalMillis ms total, ${sorted.size} chunks, p50 $p50Millis ms, max $maxMillis ms")
+            assertTrue("slowest chunk took $maxMillis ms", maxMillis < MAX_CHUNK_MS)
+        } finally {
+            database.close()
+        }
+    }
+
+    private companion object {
+        const val ROWS = 1_000_000
+        // Each chunk holds the write lock, so a writer arriving mid-chunk waits up to this long
+        const val MAX_CHUNK_MS = 250.0
+    }
+}
@@ -0,0 +1,119 @@
+package com.baryabuddy.app.data.database.migration
+
+import android.app.Application
+import androidx.sqlite.db.SupportSQLiteDatabase
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class ChunkedMigrationRunnerTest {
+
+    private lateinit var database: AppDatabase
+    private val db: SupportSQLiteDatabase get() = database.openHelper.writableDatabase
+
+    @Before
+    fun setUp() {
+        database = inMemoryDatabase()
+        db.execSQL("CREATE TABLE amounts_copy (id INTEGER PRIMARY KEY, amount INTEGER NOT NULL)")
+        repeat(ROWS) { i ->
+            db.execSQL(
+                "INSERT INTO transactions (amountCentavos, categoryId, description, dateUtcMillis, epochDay, createdAt) " +
+                    "VALUES (?, 1, NULL, 0, 0, 0)",
+                arrayOf<Any>((i + 1) * 100L)
+            )
+        }
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    // Copies transactions.amountCentavos into amounts_copy; can fail right after writing a chunk
+    private class CopyAmounts(private val failOnChunk: Int? = null) : ChunkedMigration("test_copy_amounts") {
+        val chunkStarts = mutableListOf<Long>()
+        var finishCalls = 0
+
+        override fun countRemaining(db: SupportSQLiteDatabase, afterKey: Long): Long =
+            db.query("SELECT COUNT(*) FROM transactions WHERE id > ?", arrayOf<Any>(afterKey))
+                .use { it.moveToFirst(); it.getLong(0) }
+
+        override fun migrateChunk(db: SupportSQLiteDatabase, afterKey: Long, limit: Int): ChunkResult? {
+            chunkStarts += afterKey
+            val ids = db.query("SELECT id FROM transactions WHERE id > ? ORDER BY id LIMIT ?", arrayOf<Any>(afterKey, limit))
+                .use { c -> buildList { while (c.moveToNext()) add(c.getLong(0)) } }
+            if (ids.isEmpty()) return null
+            db.execSQL(
+                "INSERT OR REPLACE INTO amounts_copy (id, amount) " +
+                    "SELECT id, amountCentavos FROM transactions WHERE id > ? AND id <= ?",
+                arrayOf<Any>(afterKey, ids.last())
+            )
+            if (chunkStarts.size == failOnChunk) error("process died mid-chunk")
+            return ChunkResult(ids.last(), ids.size)
+        }
+
+        override fun finish(db: SupportSQLiteDatabase) {
+            finishCalls++
+        }
+    }
+
+    private fun copiedRows(): Long =
+        db.query("SELECT COUNT(*) FROM amounts_copy").use { it.moveToFirst(); it.getLong(0) }
+
+    @Test
+    fun runsEveryChunk_thenFinishesOnce() = runBlocking {
+        val migration = CopyAmounts()
+        val runner = ChunkedMigrationRunner(database, listOf(migration), chunkSize = 10)
+
+        runner.runPending()
+
+        assertEquals(listOf(Long.MIN_VALUE, 10L, 20L, 25L), migration.chunkStarts)
+        assertEquals(1, migration.finishCalls)
+        assertEquals(ROWS.toLong(), copiedRows())
+        val entry = database.migrationProgressDao().get("test_copy_amounts")!!
+        assertTrue(entry.completed)
+        assertEquals(ROWS.toLong(), entry.rowsDone)
+        assertNull(runner.progress.value)
+
+        // A completed migration is skipped on later runs
+        runner.runPending()
+        assertEquals(4, migration.chunkStarts.size)
+        assertEquals(1, migration.finishCalls)
+    }
+
+    @Test
+    fun interruptedRun_resumesAfterLastCommittedChunk() = runBlocking {
+        val crashing = CopyAmounts(failOnChunk = 2)
+        val failure = runCatching {
+            ChunkedMigrationRunner(database, listOf(crashing), chunkSize = 10).runPending()
+        }.exceptionOrNull()
+        assertTrue(failure is IllegalStateException)
+        // The failed chunk rolled back together with its progress row
+        assertEquals(10L, copiedRows())
+        assertEquals(10L, database.migrationProgressDao().get("test_copy_amounts")!!.lastKey)
+
+        val resumed = CopyAmounts()
+        ChunkedMigrationRunner(database, listOf(resumed), chunkSize = 10).runPending()
+
+        assertEquals(listOf(10L, 20L, 25L), resumed.chunkStarts)
+        assertEquals(0, crashing.finishCalls)
+        assertEquals(1, resumed.finishCalls)
+        assertEquals(ROWS.toLong(), copiedRows())
+        assertEquals(ROWS.toLong(), database.migrationProgressDao().get("test_copy_amounts")!!.rowsDone)
+    }
+
+    private companion object {
+        const val ROWS = 25
+    }
+}
@@ -0,0 +1,106 @@
+package com.baryabuddy.app.data.database.migration
+
+import android.app.Application
+import androidx.room.testing.MigrationTestHelper
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.test.platform.app.InstrumentationRegistry
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.generator.SyntheticLedgerGenerator
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.File
+
+/**
+ * ⏱️ Takes a version 4 database holding a generated ledger through every Room migration up to
+ * the current version, one step at a time, validating each step against its exported schema
+ * (app/schemas) and timing it. Step times go to build/reports/migration-timings.json.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class MigrationTimingTest {
+
+    @get:Rule
+    val helper = MigrationTestHelper(InstrumentationRegistry.getInstrumentation(), AppDatabase::class.java)
+
+    @Test
+    fun migrate4ToCurrent_keepsTheLedger() {
+        helper.createDatabase(DB_NAME, FIRST_VERSION).use { writeVersion4Ledger(it) }
+
+        val stepMillis = LinkedHashMap<String, Long>()
+        var db: SupportSQLiteDatabase? = null
+        AppDatabase.ALL_MIGRATIONS.filter { it.startVersion >= FIRST_VERSION }.forEach { migration ->
+            db?.close()
+            val start = System.nanoTime()
+            db = helper.runMigrationsAndValidate(DB_NAME, migration.endVersion, true, migration)
+            stepMillis["${migration.startVersion}->${migration.endVersion}"] = (System.nanoTime() - start) / 1_000_000
+        }
+
+        db!!.use { migrated ->
+            assertEquals(ROWS.toLong(), count(migrated, "SELECT COUNT(*) FROM transactions"))
+            assertEquals(ROWS.toLong(), count(migrated, "SELECT SUM(txCount) FROM daily_totals"))
+            // MIGRATION_8_9 logs the existing ledger as inserts
+            assertEquals(ROWS.toLong(), count(migrated, "SELECT COUNT(*) FROM change_log"))
+            assertEquals(
+                count(migrated, "SELECT COUNT(*) FROM transactions WHERE description LIKE '%Lunch%'"),
+                count(migrated, "SELECT COUNT(*) FROM transactions_fts WHERE transactions_fts MATCH 'lunch'")
+            )
+        }
+        writeReport(stepMillis)
+    }
+
+    private fun writeVersion4Ledger(db: SupportSQLiteDatabase) {
+        db.beginTransaction()
+        try {
+            db.execSQL(
+                "INSERT INTO user_profile (id, incomeAmount, fixedBillsAmount, savingsGoalAmount, incomeFrequency, resetDay, currency, setupCompleted) " +
+                    "VALUES (1, 500000, 100000, 50000, 'MONTHLY', 1, '₱', 1)"
+            )
+            db.execSQL("INSERT INTO categories (id, name, icon, color) VALUES (1, 'Food & Canteen', 'food', 1)")
+            val insert = db.compileStatement(
+                "INSERT INTO transactions (amountCentavos, categoryId, description, date, createdAt) VALUES (?, ?, ?, ?, ?)"
+            )
+            SyntheticLedgerGenerator().generate(ROWS).forEach { row ->
+                insert.clearBindings()
+                insert.bindLong(1, row.amountCentavos)
+                row.categoryId?.let { insert.bindLong(2, it.toLong()) } ?: insert.bindNull(2)
+                row.description?.let { insert.bindString(3, it) } ?: insert.bindNull(3)
+                insert.bindLong(4, row.dateUtcMillis)
+                insert.bindLong(5, row.createdAt)
+                insert.executeInsert()
+            }
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+    }
+
+    private fun count(db: SupportSQLiteDatabase, sql: String): Long =
+        db.query(sql).use { it.moveToFirst(); it.getLong(0) }
+
+    private fun writeReport(stepMillis: Map<String, Long>) {
+        val out = StringBuilder()
+        out.append("{\"rows\":").append(ROWS).append(",\"steps\":{")
+        stepMillis.entries.forEachIndexed { index, (step, millis) ->
+            if (index > 0) out.append(',')
+            out.append("\n\"").append(step).append("\":").append(millis)
+        }
+        out.append("\n}}\n")
+        File(REPORT).apply {
+            parentFile?.mkdirs()
+            writeText(out.toString())
+        }
+        println("Migration timings ($ROWS rows): $stepMillis")
+    }
+
+    private companion object {
+        const val DB_NAME = "migration-timing.db"
+        const val FIRST_VERSION = 4
+        const val ROWS = 20_000
+        // Relative to the module directory, where Gradle runs unit tests
+        const val REPORT = "build/reports/migration-timings.json"
+    }
+}
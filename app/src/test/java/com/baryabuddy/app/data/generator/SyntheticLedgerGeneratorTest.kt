@@ -0,0 +1,58 @@
+package com.baryabuddy.app.data.generator
+
+import android.app.Application
+import androidx.room.InvalidationTracker
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class SyntheticLedgerGeneratorTest {
+
+    private lateinit var database: AppDatabase
+
+    @Before
+    fun setUp() {
+        database = inMemoryDatabase()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun writeTo_notifiesRoomObservers() = runBlocking {
+        val invalidated = CountDownLatch(1)
+        database.invalidationTracker.addObserver(object : InvalidationTracker.Observer("transactions") {
+            override fun onInvalidated(tables: Set<String>) = invalidated.countDown()
+        })
+
+        val written = SyntheticLedgerGenerator().writeTo(database, count = 2_500, batchSize = 1_000)
+
+        assertEquals(2_500, written)
+        // Room only refreshes observers for transactions it committed itself
+        assertTrue(invalidated.await(5, TimeUnit.SECONDS))
+        assertEquals(2_500, database.transactionDao().getAll().first().size)
+    }
+
+    @Test
+    fun sameSeed_sameLedger() {
+        val first = SyntheticLedgerGenerator(seed = 7).generate(500).toList()
+        val second = SyntheticLedgerGenerator(seed = 7).generate(500).toList()
+
+        assertEquals(first, second)
+    }
+}
@@ -0,0 +1,110 @@
+package com.baryabuddy.app.data.repository
+
+import android.app.Application
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.entities.UserProfile
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import com.baryabuddy.app.data.database.testRepository
+import com.baryabuddy.app.domain.model.PeriodTotals
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.time.LocalDate
+
+// The in-memory running totals must always equal what daily_totals says for the period
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class PeriodTotalsConsistencyTest {
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.Default)
+    private val profile = UserProfile(incomeAmount = 500_000, setupCompleted = true)
+    private val today = LocalDate.now()
+    private lateinit var database: AppDatabase
+    private lateinit var repository: BaryaBuddyRepository
+
+    @Before
+    fun setUp() = runBlocking {
+        database = inMemoryDatabase()
+        repository = testRepository(database, scope)
+        // Load the period first so every write below goes through the delta path
+        repository.getCurrentPeriodTotals(profile, today).first()
+    }
+
+    @After
+    fun tearDown() {
+        scope.cancel()
+        database.close()
+    }
+
+    private suspend fun add(amount: Long, categoryId: Int?, day: LocalDate = today): Long =
+        repository.addTransaction(
+            Transaction(
+                amountCentavos = amount,
+                categoryId = categoryId,
+                dateUtcMillis = System.currentTimeMillis(),
+                epochDay = day.toEpochDay()
+            )
+        )
+
+    private suspend fun assertMatchesDailyTotals() {
+        val period = repository.getBudgetPeriod(profile, today)
+        val stored = database.dailyTotalDao().getTotalsBetweenOnce(period.startEpochDay, period.endEpochDay)
+        assertEquals(stored, repository.getCurrentPeriodTotals(profile, today).first())
+    }
+
+    @Test
+    fun mixedWrites_keepTheRunningTotalsExact() = runBlocking {
+        val lunch = add(12_000, categoryId = 1)
+        val jeep = add(2_600, categoryId = 2)
+        add(100_000, categoryId = null)
+        add(9_900, categoryId = 1, day = today.minusDays(400))
+
+        repository.updateTransaction(repository.getTransactionById(lunch)!!.copy(amountCentavos = 13_500))
+        // Expense turned into income, then moved out of the period
+        repository.updateTransaction(repository.getTransactionById(jeep)!!.copy(categoryId = null))
+        repository.updateTransaction(repository.getTransactionById(jeep)!!.copy(epochDay = today.minusDays(400).toEpochDay()))
+        repository.deleteTransaction(repository.getTransactionById(lunch)!!)
+
+        assertEquals(PeriodTotals(incomeCentavos = 100_000, expenseCentavos = 0), repository.getCurrentPeriodTotals(profile, today).first())
+        assertMatchesDailyTotals()
+    }
+
+    @Test
+    fun concurrentUpdatesToOneRow_eachReplaceTheStoredAmount() = runBlocking {
+        val id = add(1_000, categoryId = 1)
+        val row = repository.getTransactionById(id)!!
+
+        (1..50).map { i ->
+            async(Dispatchers.Default) { repository.updateTransaction(row.copy(amountCentavos = i * 100L)) }
+        }.awaitAll()
+
+        val last = repository.getTransactionById(id)!!.amountCentavos
+        assertEquals(PeriodTotals(incomeCentavos = 0, expenseCentavos = last), repository.getCurrentPeriodTotals(profile, today).first())
+        assertMatchesDailyTotals()
+    }
+
+    @Test
+    fun concurrentDeletesOfOneRow_subtractItOnce() = runBlocking {
+        add(5_000, categoryId = 1)
+        val id = add(1_000, categoryId = 1)
+        val row = repository.getTransactionById(id)!!
+
+        (1..10).map { async(Dispatchers.Default) { repository.deleteTransaction(row) } }.awaitAll()
+
+        assertEquals(PeriodTotals(incomeCentavos = 0, expenseCentavos = 5_000), repository.getCurrentPeriodTotals(profile, today).first())
+        assertMatchesDailyTotals()
+    }
+}
@@ -0,0 +1,90 @@
+package com.baryabuddy.app.data.repository
+
+import android.app.Application
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import com.baryabuddy.app.data.database.testRepository
+import com.baryabuddy.app.domain.model.TransactionRow
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.concurrent.atomic.AtomicInteger
+
+// A burst of ledger writes must cost the recent-rows list one recompute, not one per write
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class RecentRowsCoalescingTest {
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.Default)
+    private val recentRowsQueries = AtomicInteger()
+    private lateinit var database: AppDatabase
+    private lateinit var repository: BaryaBuddyRepository
+
+    @Before
+    fun setUp() {
+        database = inMemoryDatabase {
+            setQueryCallback({ sql, _ -> if (sql.contains(RECENT_ROWS_ORDER)) recentRowsQueries.incrementAndGet() }, Runnable::run)
+        }
+        // Wide enough that the whole burst lands in one window
+        repository = testRepository(database, scope, invalidationWindowMillis = WINDOW_MS)
+    }
+
+    @After
+    fun tearDown() {
+        scope.cancel()
+        database.close()
+    }
+
+    private suspend fun add(dateUtcMillis: Long): Long =
+        repository.addTransaction(
+            Transaction(amountCentavos = 1_000, categoryId = 1, description = "Row $dateUtcMillis", dateUtcMillis = dateUtcMillis, epochDay = 0L)
+        )
+
+    @Test
+    fun burstOfDeletes_isOneRecomputeAndOneQuery() = runBlocking {
+        val ids = (1..5).map { add(it * 1_000L) }
+        val emissions = MutableStateFlow<List<List<TransactionRow>>>(emptyList())
+        val collector = scope.launch {
+            repository.getRecentTransactionRows(LIMIT).collect { rows -> emissions.update { it + listOf(rows) } }
+        }
+        withTimeout(5_000) { emissions.first { it.size == 1 } }
+        assertEquals(1, recentRowsQueries.get())
+        val before = repository.invalidationMetrics.value
+
+        // Each of these drops a row out of the full list, which on its own forces a re-query
+        ids.takeLast(LIMIT).forEach { repository.deleteTransaction(repository.getTransactionById(it)!!) }
+
+        withTimeout(5_000) { emissions.first { it.size == 2 } }
+        delay(WINDOW_MS * 2) // nothing else may follow
+        collector.cancel()
+
+        assertEquals(2, emissions.value.size)
+        assertEquals(ids.take(2).reversed(), emissions.value.last().map { it.id })
+        assertEquals(2, recentRowsQueries.get())
+        val after = repository.invalidationMetrics.value
+        assertEquals(LIMIT.toLong(), after.invalidations - before.invalidations)
+        assertEquals(1L, after.emissions - before.emissions)
+    }
+
+    private companion object {
+        const val LIMIT = 3
+        const val WINDOW_MS = 1_000L
+        const val RECENT_ROWS_ORDER = "ORDER BY t.dateUtcMillis DESC, t.createdAt DESC, t.id DESC LIMIT"
+    }
+}
@@ -0,0 +1,154 @@
+package com.baryabuddy.app.data.repository
+
+import com.baryabuddy.app.data.database.entities.Category
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.domain.model.LedgerChange
+import com.baryabuddy.app.domain.model.TransactionRow
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Test
+import kotlin.random.Random
+
+class RecentRowsWindowTest {
+
+    private val categories = CategoryRegistry(listOf(Category(id = 1, name = "Food", icon = "food", color = 0)))
+
+    private fun tx(id: Long, date: Long, createdAt: Long = 0L, amount: Long = 100L, categoryId: Int? = 1) =
+        Transaction(id = id, amountCentavos = amount, categoryId = categoryId, dateUtcMillis = date, epochDay = 0L, createdAt = createdAt)
+
+    private fun row(t: Transaction) = TransactionRow(
+        id = t.id,
+        amountCentavos = t.amountCentavos,
+        categoryId = t.categoryId,
+        description = t.description,
+        dateUtcMillis = t.dateUtcMillis,
+        createdAt = t.createdAt,
+        categoryName = if (t.categoryId == null) null else "Food",
+        categoryIcon = if (t.categoryId == null) null else "food",
+        categoryColor = if (t.categoryId == null) null else 0
+    )
+
+    // What getRecentRowsOnce would return for [ledger]
+    private fun query(ledger: Collection<Transaction>, limit: Int): List<TransactionRow> =
+        ledger.sortedWith(
+            compareByDescending<Transaction> { it.dateUtcMillis }
+                .thenByDescending { it.createdAt }
+                .thenByDescending { it.id }
+        ).take(limit).map(::row)
+
+    private fun apply(rows: List<TransactionRow>, before: Transaction?, after: Transaction?, limit: Int) =
+        RecentRowsWindow.apply(rows, LedgerChange.RowChanged(before, after), limit, categories)
+
+    private val ledger = (1L..5L).map { tx(id = it, date = it * 1_000) }
+
+    @Test
+    fun insertNewest_intoFullWindow_dropsTheOldest() {
+        val rows = query(ledger, 3)
+        val added = tx(id = 6, date = 9_000)
+
+        assertEquals(query(ledger + added, 3), apply(rows, null, added, 3))
+    }
+
+    @Test
+    fun insertOlderThanAFullWindow_isIgnored() {
+        val rows = query(ledger, 3)
+
+        assertSame(rows, apply(rows, null, tx(id = 6, date = 500), 3))
+    }
+
+    @Test
+    fun insertIntoPartialWindow_keepsOrder() {
+        val rows = query(ledger, 10)
+        val added = tx(id = 6, date = 2_500)
+
+        assertEquals(query(ledger + added, 10), apply(rows, null, added, 10))
+    }
+
+    @Test
+    fun deleteFromFullWindow_needsARequery() {
+        val rows = query(ledger, 3)
+
+        assertNull(apply(rows, ledger[4], null, 3))
+    }
+
+    @Test
+    fun deleteFromPartialWindow_removesTheRow() {
+        val rows = query(ledger, 10)
+
+        assertEquals(query(ledger - ledger[2], 10), apply(rows, ledger[2], null, 10))
+    }
+
+    @Test
+    fun update_movesTheRowToItsNewPosition() {
+        val rows = query(ledger, 10)
+        val moved = ledger[0].copy(dateUtcMillis = 4_500, amountCentavos = 999)
+
+        assertEquals(query(ledger - ledger[0] + moved, 10), apply(rows, ledger[0], moved, 10))
+    }
+
+    @Test
+    fun updateOutOfAFullWindow_needsARequery() {
+        val rows = query(ledger, 3)
+        val moved = ledger[4].copy(dateUtcMillis = 100)
+
+        assertNull(apply(rows, ledger[4], moved, 3))
+    }
+
+    @Test
+    fun sameChangeTwice_isIdempotent() {
+        val rows = query(ledger, 10)
+        val added = tx(id = 6, date = 3_000)
+
+        val once = apply(rows, null, added, 10)!!
+        assertEquals(once, apply(once, null, added, 10))
+
+        val update = added.copy(amountCentavos = 5_000)
+        val updated = apply(once, added, update, 10)!!
+        assertEquals(updated, apply(updated, added, update, 10))
+        assertEquals(1, updated.count { it.id == 6L })
+    }
+
+    @Test
+    fun insertOfARowAlreadyShown_replacesIt() {
+        // e.g. the initial query already saw the row whose RowChanged arrives afterwards
+        val rows = query(ledger, 10)
+        val seen = ledger[3].copy(amountCentavos = 777)
+
+        assertEquals(query(ledger - ledger[3] + seen, 10), apply(rows, null, seen, 10))
+    }
+
+    @Test
+    fun ties_breakOnIdDescending() {
+        val tied = listOf(tx(id = 1, date = 1_000), tx(id = 3, date = 1_000), tx(id = 2, date = 1_000))
+        val rows = query(tied, 10)
+        val added = tx(id = 4, date = 1_000)
+
+        assertEquals(listOf(4L, 3L, 2L, 1L), apply(rows, null, added, 10)!!.map { it.id })
+    }
+
+    @Test
+    fun randomWrites_matchARequery() {
+        val random = Random(7)
+        val limit = 10
+        val current = (1L..30L).associateWith { tx(id = it, date = random.nextLong(0, 50) * 1_000, createdAt = it) }
+            .toMutableMap()
+        var nextId = 31L
+        var rows = query(current.values, limit)
+
+        repeat(2_000) { step ->
+            val (before, after) = when (random.nextInt(3)) {
+                0 -> null to tx(id = nextId++, date = random.nextLong(0, 50) * 1_000, createdAt = nextId)
+                1 -> current.values.randomOrNull(random)?.let { it to it.copy(dateUtcMillis = random.nextLong(0, 50) * 1_000) }
+                    ?: return@repeat
+                else -> (current.values.randomOrNull(random) ?: return@repeat) to null
+            }
+            before?.let { current.remove(it.id) }
+            after?.let { current[it.id] = it }
+
+            val expected = query(current.values, limit)
+            rows = apply(rows, before, after, limit) ?: expected
+            assertEquals("step $step", expected, rows)
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.baryabuddy.app.data.repository
+
+import android.app.Application
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import com.baryabuddy.app.data.database.testRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class TransactionSearchTest {
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.Default)
+    private lateinit var database: AppDatabase
+    private lateinit var repository: BaryaBuddyRepository
+
+    @Before
+    fun setUp() {
+        database = inMemoryDatabase()
+        repository = testRepository(database, scope)
+    }
+
+    @After
+    fun tearDown() {
+        scope.cancel()
+        database.close()
+    }
+
+    private suspend fun add(description: String?, day: Long, categoryId: Int? = 1): Long =
+        repository.addTransaction(
+            Transaction(
+                amountCentavos = 1_000,
+                categoryId = categoryId,
+                description = description,
+                dateUtcMillis = day * 86_400_000L,
+                epochDay = day
+            )
+        )
+
+    private suspend fun search(query: String, categoryId: Int? = null, startDay: Long? = null, endDay: Long? = null) =
+        repository.searchTransactions(query, categoryId, startDay, endDay).map { it.id }
+
+    @Test
+    fun wordsMatchAsPrefixes_newestFirst() = runBlocking {
+        val lunch = add("Jollibee lunch", day = 100)
+        val breakfast = add("jollibee breakfast", day = 101)
+        add("Siomai rice", day = 102)
+
+        assertEquals(listOf(breakfast, lunch), search("jolli"))
+        assertEquals(listOf(lunch), search("JOLLIBEE lun"))
+        assertEquals(emptyList<Long>(), search("lunch breakfast"))
+    }
+
+    @Test
+    fun categoryAndDayFilters_narrowTheMatches() = runBlocking {
+        val food = add("Grab to school", day = 100, categoryId = 1)
+        val commute = add("Grab ride", day = 110, categoryId = 2)
+        val allowance = add("Grab refund", day = 120, categoryId = null)
+
+        assertEquals(listOf(commute), search("grab", categoryId = 2))
+        assertEquals(listOf(commute, food), search("grab", startDay = 100, endDay = 120))
+        assertEquals(listOf(allowance), search("grab", startDay = 120))
+    }
+
+    @Test
+    fun ftsOperatorsInInput_areJustText() = runBlocking {
+        val id = add("Milk tea (large)", day = 100)
+
+        assertEquals(listOf(id), search("\"milk\" tea*"))
+        assertEquals(listOf(id), search("tea:large"))
+        // OR is just another word to match, not an operator
+        assertEquals(emptyList<Long>(), search("milk OR coffee"))
+        assertEquals(emptyList<Long>(), search("*"))
+        assertEquals(emptyList<Long>(), search("   "))
+        assertEquals(emptyList<Long>(), search("NEAR( AND"))
+    }
+
+    @Test
+    fun indexFollowsUpdatesAndDeletes() = runBlocking {
+        val id = add("Photocopy", day = 100)
+        val row = repository.getTransactionById(id)!!
+
+        repository.updateTransaction(row.copy(description = "Project materials"))
+        assertEquals(emptyList<Long>(), search("photocopy"))
+        assertEquals(listOf(id), search("materials"))
+
+        repository.deleteTransaction(repository.getTransactionById(id)!!)
+        assertEquals(emptyList<Long>(), search("materials"))
+    }
+}
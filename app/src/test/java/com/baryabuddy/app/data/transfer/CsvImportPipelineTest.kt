@@ -0,0 +1,136 @@
+package com.baryabuddy.app.data.transfer
+
+import android.app.Application
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.dao.LedgerFixture
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import com.baryabuddy.app.data.generator.SyntheticLedgerGenerator
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.time.Instant
+import java.time.LocalDate
+import java.time.ZoneOffset
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class CsvImportPipelineTest {
+
+    private lateinit var database: AppDatabase
+
+    @Before
+    fun setUp() = runBlocking {
+        database = inMemoryDatabase()
+        database.categoryDao().insertAll(LedgerFixture.categories)
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    private suspend fun import(csv: String, batchSize: Int = 100): List<ImportProgress> =
+        CsvTransactionImporter(database, batchSize).import { csv.byteInputStream() }.toList()
+
+    private suspend fun storedRows() = database.transactionDao().getAll().first()
+
+    @Test
+    fun validRowsAreInsertedInBatches_invalidOnesCounted() = runBlocking {
+        val csv = buildString {
+            appendLine("Description,AMOUNT,Date")
+            repeat(250) { i -> appendLine("Row $i,-${i + 1}.50,2026-03-%02d".format(i % 28 + 1)) }
+            appendLine("Bad date,-10,31/31/2026")
+            appendLine("Zero,0,2026-03-01")
+            appendLine("Not money,abc,2026-03-01")
+            appendLine("")
+        }
+
+        val progress = import(csv)
+
+        // One emission per committed batch of 100, then the final count
+        assertEquals(listOf(100L, 200L, 250L, 250L), progress.map { it.rowsImported })
+        assertEquals(ImportProgress(rowsRead = 253, rowsImported = 250, rowsRejected = 3, done = true), progress.last())
+        val rows = storedRows()
+        assertEquals(250, rows.size)
+        assertEquals((1..250).sumOf { it * 100L + 50 }, rows.sumOf { it.amountCentavos })
+        assertTrue(rows.all { it.categoryId == 8 })
+    }
+
+    @Test
+    fun typeAndCategoryColumns_decideTheSideAndCategory() = runBlocking {
+        import(
+            """
+            date,amount,category,type,description
+            2026-03-02,"1,500.00",,income,Allowance
+            2026-03-02,-45,Commute,,Jeep
+            2026-03-02,120,food & canteen,expense,Lunch
+            2026-03-02,-99,Unknown place,,Mystery
+            3/3/2026 18:05,250,,,Refund
+            """.trimIndent()
+        )
+
+        val byDescription = storedRows().associateBy { it.description }
+        assertEquals(null, byDescription["Allowance"]!!.categoryId)
+        assertEquals(150_000L, byDescription["Allowance"]!!.amountCentavos)
+        assertEquals(2, byDescription["Jeep"]!!.categoryId)
+        assertEquals(1, byDescription["Lunch"]!!.categoryId)
+        assertEquals(8, byDescription["Mystery"]!!.categoryId)
+        assertEquals(null, byDescription["Refund"]!!.categoryId)
+        assertEquals(LocalDate.of(2026, 3, 3).toEpochDay(), byDescription["Refund"]!!.epochDay)
+    }
+
+    @Test
+    fun headerWithoutRequiredColumns_failsWithoutWriting() = runBlocking {
+        val failure = runCatching { import("when,how much\n2026-03-01,-10\n") }.exceptionOrNull()
+
+        assertTrue(failure is IllegalArgumentException)
+        assertEquals(0, storedRows().size)
+    }
+
+    @Test
+    fun hundredThousandRows_streamInBatchSizedSteps() = runBlocking {
+        val rows = 100_000
+        val batchSize = CsvTransactionImporter.DEFAULT_BATCH_SIZE
+        val categoryNames = LedgerFixture.categories.associate { it.id.toInt() to it.name }
+        val csv = buildString {
+            appendLine("date,amount,category,description")
+            SyntheticLedgerGenerator().generate(rows).forEach { t ->
+                val date = Instant.ofEpochMilli(t.dateUtcMillis).atOffset(ZoneOffset.UTC).toLocalDateTime()
+                val sign = if (t.categoryId == null) "" else "-"
+                val amount = "%s%d.%02d".format(sign, t.amountCentavos / 100, t.amountCentavos % 100)
+                appendLine("$date,$amount,${t.categoryId?.let { categoryNames[it] }.orEmpty()},${t.description.orEmpty()}")
+            }
+        }
+
+        val start = System.nanoTime()
+        val progress = CsvTransactionImporter(database).import { csv.byteInputStream() }.toList()
+        val seconds = (System.nanoTime() - start) / 1e9
+        println("CSV import: $rows rows in ${"%.2f".format(seconds)} s (${(rows / seconds).toLong()} rows/s)")
+
+        assertEquals(ImportProgress(rowsRead = rows.toLong(), rowsImported = rows.toLong(), done = true), progress.last())
+        // One event per committed batch plus the final one, each at most a batch further on
+        assertEquals(rows / batchSize + 1, progress.size)
+        (listOf(ImportProgress()) + progress).zipWithNext().forEach { (before, after) ->
+            assertTrue(after.rowsImported - before.rowsImported in 0..batchSize)
+        }
+        assertEquals(rows, storedRows().size)
+    }
+
+    @Test
+    fun importedRows_landInDailyTotals() = runBlocking {
+        import("date,amount\n2026-03-01,-10\n2026-03-01,-15.25\n2026-03-01,200\n")
+
+        val day = LocalDate.of(2026, 3, 1).toEpochDay()
+        val totals = database.dailyTotalDao().getTotalsBetweenOnce(day, day + 1)
+        assertEquals(2_525L, totals.expenseCentavos)
+        assertEquals(20_000L, totals.incomeCentavos)
+    }
+}
@@ -0,0 +1,67 @@
+package com.baryabuddy.app.data.transfer
+
+import com.baryabuddy.app.data.transfer.CsvTransactionImporter.Companion.parseCentavos
+import com.baryabuddy.app.data.transfer.CsvTransactionImporter.Companion.parseDate
+import com.baryabuddy.app.data.transfer.CsvTransactionImporter.Companion.splitCsvLine
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+import java.time.LocalDateTime
+
+class CsvTransactionImporterTest {
+
+    @Test
+    fun parseCentavos_acceptsCurrencyAndGrouping() {
+        assertEquals(123_450L, parseCentavos("₱1,234.50"))
+        assertEquals(25_000L, parseCentavos("250"))
+        assertEquals(5L, parseCentavos(".05"))
+    }
+
+    @Test
+    fun parseCentavos_readsBothNegativeStyles() {
+        assertEquals(-25_000L, parseCentavos("-250"))
+        assertEquals(-25_000L, parseCentavos("(250.00)"))
+        assertEquals(-123_450L, parseCentavos("-₱1,234.50"))
+    }
+
+    @Test
+    fun parseCentavos_roundsHalfUp() {
+        assertEquals(101L, parseCentavos("1.005"))
+        assertEquals(100L, parseCentavos("1.004"))
+    }
+
+    @Test
+    fun parseCentavos_rejectsNonNumbers() {
+        assertNull(parseCentavos(""))
+        assertNull(parseCentavos("abc"))
+        assertNull(parseCentavos("1.2.3"))
+        assertNull(parseCentavos("-"))
+    }
+
+    @Test
+    fun splitCsvLine_handlesQuotesAndEmptyFields() {
+        assertEquals(listOf("a", "b", "c"), splitCsvLine("a,b,c"))
+        assertEquals(listOf("a", "", ""), splitCsvLine("a,,"))
+        assertEquals(listOf(""), splitCsvLine(""))
+        assertEquals(listOf("a", "b,c", "say \"hi\""), splitCsvLine("a,\"b,c\",\"say \"\"hi\"\"\""))
+        assertEquals(listOf("₱1,234.50", "Food"), splitCsvLine("\"₱1,234.50\",Food"))
+    }
+
+    @Test
+    fun parseDate_readsEveryFormat() {
+        assertEquals(LocalDateTime.of(2024, 3, 5, 14, 30, 15), parseDate("2024-03-05T14:30:15"))
+        assertEquals(LocalDateTime.of(2024, 3, 5, 14, 30), parseDate("2024-03-05 14:30"))
+        assertEquals(LocalDateTime.of(2024, 3, 5, 14, 30, 15), parseDate("2024-03-05 14:30:15"))
+        assertEquals(LocalDateTime.of(2024, 3, 5, 9, 5), parseDate("3/5/2024 9:05"))
+        assertEquals(LocalDateTime.of(2024, 3, 5, 0, 0), parseDate("2024-03-05"))
+        assertEquals(LocalDateTime.of(2024, 12, 25, 0, 0), parseDate("12/25/2024"))
+    }
+
+    @Test
+    fun parseDate_rejectsUnknownFormats() {
+        assertNull(parseDate(""))
+        assertNull(parseDate("yesterday"))
+        assertNull(parseDate("2024-13-01"))
+        assertNull(parseDate("05.03.2024"))
+    }
+}
@@ -0,0 +1,145 @@
+package com.baryabuddy.app.data.transfer
+
+import android.app.Application
+import androidx.test.core.app.ApplicationProvider
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import com.baryabuddy.app.data.database.testRepository
+import com.baryabuddy.app.data.repository.BaryaBuddyRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.File
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class IncrementalBackupTest {
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.Default)
+    private lateinit var database: AppDatabase
+    private lateinit var repository: BaryaBuddyRepository
+    private lateinit var backupFile: File
+
+    @Before
+    fun setUp() {
+        database = inMemoryDatabase()
+        repository = testRepository(database, scope)
+        backupFile = BackupCheckpoints(ApplicationProvider.getApplicationContext()).file
+        backupFile.delete()
+    }
+
+    @After
+    fun tearDown() {
+        scope.cancel()
+        database.close()
+    }
+
+    private suspend fun add(amount: Long, description: String): Long =
+        repository.addTransaction(
+            Transaction(amountCentavos = amount, categoryId = 1, description = description, dateUtcMillis = 0L, epochDay = 0L)
+        )
+
+    private fun changeLogSize(): Int =
+        database.query("SELECT COUNT(*) FROM change_log", null).use { it.moveToFirst(); it.getInt(0) }
+
+    private fun changeLogSeqs(): List<Long> =
+        database.query("SELECT seq FROM change_log ORDER BY seq", null).use { cursor ->
+            generateSequence { if (cursor.moveToNext()) cursor.getLong(0) else null }.toList()
+        }
+
+    // Stands in for a remote destination that has only confirmed changes up to [ackUpTo]
+    private class FakeSyncSink(var ackUpTo: Long) : SyncSink {
+        val sent = ArrayList<Long>()
+
+        override suspend fun send(file: File, upToSeq: Long): Long {
+            sent += upToSeq
+            return ackUpTo
+        }
+    }
+
+    @Test
+    fun everyWrite_isLoggedAndBackedUpOnce_thenCompacted() = runBlocking {
+        val kept = add(1_000, "Load \"regular\"")
+        val removed = add(2_000, "Snacks")
+        repository.updateTransaction(repository.getTransactionById(kept)!!.copy(amountCentavos = 1_500))
+        repository.deleteTransaction(repository.getTransactionById(removed)!!)
+        assertEquals(4, changeLogSize())
+
+        val result = repository.backUpAndCompact()
+
+        assertEquals(BackupResult(changesWritten = 4, changesCompacted = 4), result)
+        assertEquals(0, changeLogSize())
+        val lines = backupFile.readLines()
+        assertEquals(listOf("I", "I", "U", "D"), lines.map { Regex("\"op\":\"(.)\"").find(it)!!.groupValues[1] })
+        // Rows are written as they are now: the update shows 1500, the deleted row is gone
+        assertTrue(lines[0].contains("\"id\":$kept,\"row\":{\"amountCentavos\":1500,"))
+        assertTrue(lines[0].contains("\"description\":\"Load \\\"regular\\\"\""))
+        assertTrue(lines[1].endsWith("\"id\":$removed,\"row\":null}"))
+    }
+
+    @Test
+    fun secondBackup_appendsOnlyNewChanges() = runBlocking {
+        add(1_000, "Jeep")
+        add(2_000, "Lunch")
+        assertEquals(2L, repository.backUpAndCompact().changesWritten)
+
+        add(3_000, "Print")
+        val second = repository.backUpAndCompact()
+
+        assertEquals(BackupResult(changesWritten = 1, changesCompacted = 1), second)
+        val seqs = backupFile.readLines().map { Regex("\"seq\":(\\d+)").find(it)!!.groupValues[1].toLong() }
+        assertEquals(3, seqs.size)
+        assertEquals(seqs.sorted().distinct(), seqs)
+    }
+
+    @Test
+    fun compaction_neverTrimsPastTheSinksAck() = runBlocking {
+        val sink = FakeSyncSink(ackUpTo = 0L)
+        repository = testRepository(database, scope, sink)
+        repeat(4) { add(1_000L * (it + 1), "Item $it") }
+        val seqs = changeLogSeqs()
+
+        // Everything is in the local file, but nothing is acknowledged, so the log keeps it all
+        assertEquals(BackupResult(changesWritten = 4, changesCompacted = 0), repository.backUpAndCompact())
+        assertEquals(listOf(seqs.last()), sink.sent)
+        assertEquals(seqs, changeLogSeqs())
+
+        // A partial upload: only the first two changes are confirmed
+        sink.ackUpTo = seqs[1]
+        assertEquals(BackupResult(changesWritten = 0, changesCompacted = 2), repository.backUpAndCompact())
+        assertEquals(seqs.drop(2), changeLogSeqs())
+
+        // An older ack does not move the checkpoint back
+        sink.ackUpTo = seqs[0]
+        assertEquals(BackupResult(changesWritten = 0, changesCompacted = 0), repository.backUpAndCompact())
+        assertEquals(seqs.drop(2), changeLogSeqs())
+
+        // An ack beyond the file is capped at the local checkpoint
+        sink.ackUpTo = Long.MAX_VALUE
+        assertEquals(BackupResult(changesWritten = 0, changesCompacted = 2), repository.backUpAndCompact())
+        val checkpoints = BackupCheckpoints(ApplicationProvider.getApplicationContext())
+        assertEquals(checkpoints.localCheckpointSeq, checkpoints.sinkAckedSeq)
+        assertEquals(seqs.last(), checkpoints.sinkAckedSeq)
+        assertEquals(0, changeLogSize())
+    }
+
+    @Test
+    fun nothingNew_writesAndCompactsNothing() = runBlocking {
+        add(1_000, "Jeep")
+        repository.backUpAndCompact()
+
+        assertEquals(BackupResult(changesWritten = 0, changesCompacted = 0), repository.backUpAndCompact())
+        assertEquals(1, backupFile.readLines().size)
+    }
+}
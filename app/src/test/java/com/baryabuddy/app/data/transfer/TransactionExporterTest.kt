@@ -0,0 +1,126 @@
+package com.baryabuddy.app.data.transfer
+
+import android.app.Application
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.dao.LedgerFixture
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import com.baryabuddy.app.data.generator.SyntheticLedgerGenerator
+import com.baryabuddy.app.domain.model.LedgerDate
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.last
+import kotlinx.coroutines.runBlocking
+import org.json.JSONArray
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.util.TimeZone
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class TransactionExporterTest {
+
+    private val zone = ZoneId.of("Asia/Manila")
+    private lateinit var defaultZone: TimeZone
+    private lateinit var source: AppDatabase
+
+    @Before
+    fun setUp() = runBlocking {
+        // The importer reads dates in the system zone
+        defaultZone = TimeZone.getDefault()
+        TimeZone.setDefault(TimeZone.getTimeZone(zone))
+        source = inMemoryDatabase()
+        source.categoryDao().insertAll(LedgerFixture.categories)
+        SyntheticLedgerGenerator(zone = zone).writeTo(source, 3_000)
+        source.transactionDao().insertAll(listOf(tricky("Lunch, with \"friends\""), tricky("C:\\receipts"), tricky("Tab\there")))
+    }
+
+    @After
+    fun tearDown() {
+        source.close()
+        TimeZone.setDefault(defaultZone)
+    }
+
+    private fun tricky(description: String): Transaction {
+        val date = LocalDateTime.of(2025, 1, 15, 12, 0)
+        return Transaction(
+            amountCentavos = 12_345,
+            categoryId = 1,
+            description = description,
+            dateUtcMillis = LedgerDate.utcMillis(date, zone),
+            epochDay = LedgerDate.epochDay(date)
+        )
+    }
+
+    private suspend fun export(database: AppDatabase, format: ExportFormat, exportZone: ZoneId = zone): String {
+        val out = ByteArrayOutputStream()
+        val progress = TransactionExporter(database, exportZone).export({ out }, format).last()
+        assertTrue(progress.done)
+        return out.toString(Charsets.UTF_8.name())
+    }
+
+    private data class Key(val dateUtcMillis: Long, val epochDay: Long, val amount: Long, val categoryId: Int?, val description: String?)
+
+    // Everything but id/createdAt, which a re-import assigns afresh
+    private suspend fun ledger(database: AppDatabase): List<Key> =
+        database.transactionDao().getByEpochDays(Long.MIN_VALUE, Long.MAX_VALUE).first()
+            .map { Key(it.dateUtcMillis, it.epochDay, it.amountCentavos, it.categoryId, it.description) }
+            .sortedWith(compareBy<Key>({ it.dateUtcMillis }, { it.amount }, { it.categoryId }, { it.description }))
+
+    @Test
+    fun csvExport_reimportsToTheSameLedger() = runBlocking {
+        val csv = export(source, ExportFormat.CSV)
+
+        val target = inMemoryDatabase()
+        target.categoryDao().insertAll(LedgerFixture.categories)
+        val imported = CsvTransactionImporter(target).import { ByteArrayInputStream(csv.toByteArray()) }.last()
+
+        assertEquals(3_003L, imported.rowsImported)
+        assertEquals(0L, imported.rowsRejected)
+        assertEquals(ledger(source), ledger(target))
+        target.close()
+    }
+
+    @Test
+    fun jsonExport_parsesBackWithEscapedText() = runBlocking {
+        val rows = JSONArray(export(source, ExportFormat.JSON))
+
+        assertEquals(3_003, rows.length())
+        val descriptions = (0 until rows.length()).map { rows.getJSONObject(it).optString("description") }
+        assertTrue("Lunch, with \"friends\"" in descriptions)
+        assertTrue("C:\\receipts" in descriptions)
+        assertTrue("Tab\there" in descriptions)
+    }
+
+    @Test
+    fun datesOnDstDays_matchIsoFormatting() = runBlocking {
+        val newYork = ZoneId.of("America/New_York")
+        val database = inMemoryDatabase()
+        val dates = listOf(
+            LocalDateTime.of(2024, 3, 9, 3, 0),   // regular day
+            LocalDateTime.of(2024, 3, 10, 3, 0),  // spring forward (23-hour day)
+            LocalDateTime.of(2024, 3, 10, 14, 5, 9),
+            LocalDateTime.of(2024, 11, 3, 0, 30)  // fall back (25-hour day)
+        )
+        database.transactionDao().insertAll(dates.map {
+            Transaction(amountCentavos = 100, dateUtcMillis = LedgerDate.utcMillis(it, newYork), epochDay = LedgerDate.epochDay(it))
+        })
+
+        val rows = JSONArray(export(database, ExportFormat.JSON, newYork))
+
+        assertEquals(
+            listOf("2024-03-09T03:00:00", "2024-03-10T03:00:00", "2024-03-10T14:05:09", "2024-11-03T00:30:00"),
+            (0 until rows.length()).map { rows.getJSONObject(it).getString("date") }
+        )
+        database.close()
+    }
+}
@@ -0,0 +1,47 @@
+package com.baryabuddy.app.domain.model
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneId
+
+class LedgerDateTest {
+
+    private val manila = ZoneId.of("Asia/Manila")
+    private val newYork = ZoneId.of("America/New_York")
+
+    @Test
+    fun utcMillis_roundTripsInTheSameZone() {
+        val dateTime = LocalDateTime.of(2024, 6, 15, 21, 45, 30)
+        listOf(manila, newYork, ZoneId.of("UTC")).forEach { zone ->
+            assertEquals(dateTime, LedgerDate.toLocalDateTime(LedgerDate.utcMillis(dateTime, zone), zone))
+        }
+    }
+
+    @Test
+    fun utcMillis_isTheInstant() {
+        // 08:00 in Manila (UTC+8) is midnight UTC
+        val millis = LedgerDate.utcMillis(LocalDateTime.of(2024, 1, 1, 8, 0), manila)
+        assertEquals(LocalDate.of(2024, 1, 1).toEpochDay() * 86_400_000L, millis)
+    }
+
+    @Test
+    fun epochDay_isTheWallClockDay_whateverTheZone() {
+        // Late evening in Manila is still the same morning in UTC; the stored day doesn't care
+        val lateEvening = LocalDateTime.of(2024, 6, 15, 23, 30)
+        assertEquals(LocalDate.of(2024, 6, 15).toEpochDay(), LedgerDate.epochDay(lateEvening))
+        assertEquals(LocalDate.of(2024, 6, 15), LedgerDate.toLocalDate(LedgerDate.epochDay(lateEvening)))
+    }
+
+    @Test
+    fun zoneChange_movesTheShownTimeButNotTheDay() {
+        val recorded = LocalDateTime.of(2024, 6, 15, 9, 0)
+        val millis = LedgerDate.utcMillis(recorded, manila)
+        val epochDay = LedgerDate.epochDay(recorded)
+
+        // Viewed after flying to New York: 21:00 the previous evening, still filed under the 15th
+        assertEquals(LocalDateTime.of(2024, 6, 14, 21, 0), LedgerDate.toLocalDateTime(millis, newYork))
+        assertEquals(LocalDate.of(2024, 6, 15), LedgerDate.toLocalDate(epochDay))
+    }
+}
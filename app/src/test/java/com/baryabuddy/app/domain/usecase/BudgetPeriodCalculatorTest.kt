@@ -0,0 +1,101 @@
+package com.baryabuddy.app.domain.usecase
+
+import com.baryabuddy.app.data.database.entities.IncomeFrequency
+import com.baryabuddy.app.data.database.entities.UserProfile
+import com.baryabuddy.app.domain.model.BudgetPeriod
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Test
+import java.time.LocalDate
+
+class BudgetPeriodCalculatorTest {
+
+    private fun monthly(resetDay: Int, date: String) =
+        BudgetPeriodCalculator.compute(IncomeFrequency.MONTHLY, resetDay, LocalDate.parse(date))
+
+    private fun weekly(resetDay: Int, date: String) =
+        BudgetPeriodCalculator.compute(IncomeFrequency.WEEKLY, resetDay, LocalDate.parse(date))
+
+    private fun period(start: String, endExclusive: String) =
+        BudgetPeriod(LocalDate.parse(start), LocalDate.parse(endExclusive))
+
+    @Test
+    fun monthly_resetOnFirst_isTheCalendarMonth() {
+        assertEquals(period("2024-05-01", "2024-06-01"), monthly(1, "2024-05-01"))
+        assertEquals(period("2024-05-01", "2024-06-01"), monthly(1, "2024-05-31"))
+    }
+
+    @Test
+    fun monthly_beforeResetDay_belongsToPreviousPeriod() {
+        assertEquals(period("2023-12-15", "2024-01-15"), monthly(15, "2024-01-10"))
+        assertEquals(period("2024-01-15", "2024-02-15"), monthly(15, "2024-01-15"))
+    }
+
+    @Test
+    fun monthly_resetDayPastMonthEnd_clampsToLastDay() {
+        // Leap year: the 31st falls on Feb 29
+        assertEquals(period("2024-01-31", "2024-02-29"), monthly(31, "2024-02-15"))
+        assertEquals(period("2024-02-29", "2024-03-31"), monthly(31, "2024-02-29"))
+        // Non-leap year: Feb 28, and 30-day months end on the 30th
+        assertEquals(period("2023-02-28", "2023-03-31"), monthly(31, "2023-03-10"))
+        assertEquals(period("2023-03-31", "2023-04-30"), monthly(31, "2023-04-29"))
+        assertEquals(period("2023-04-30", "2023-05-31"), monthly(31, "2023-04-30"))
+    }
+
+    @Test
+    fun monthly_outOfRangeResetDay_isCoerced() {
+        assertEquals(monthly(1, "2024-05-10"), monthly(0, "2024-05-10"))
+        assertEquals(monthly(31, "2024-05-10"), monthly(40, "2024-05-10"))
+    }
+
+    @Test
+    fun irregular_followsTheMonthlyRules() {
+        val date = LocalDate.parse("2024-02-15")
+        assertEquals(
+            BudgetPeriodCalculator.compute(IncomeFrequency.MONTHLY, 31, date),
+            BudgetPeriodCalculator.compute(IncomeFrequency.IRREGULAR, 31, date)
+        )
+    }
+
+    @Test
+    fun weekly_startsOnTheResetWeekday() {
+        // 2024-06-05 is a Wednesday; resetDay 5 = Friday
+        assertEquals(period("2024-05-31", "2024-06-07"), weekly(5, "2024-06-05"))
+        assertEquals(period("2024-06-07", "2024-06-14"), weekly(5, "2024-06-07"))
+        assertEquals(period("2024-06-07", "2024-06-14"), weekly(5, "2024-06-13"))
+        // resetDay 1 = Monday
+        assertEquals(period("2024-06-03", "2024-06-10"), weekly(1, "2024-06-05"))
+    }
+
+    @Test
+    fun weekly_isAlwaysSevenDays() {
+        var date = LocalDate.parse("2024-01-01")
+        repeat(60) {
+            for (resetDay in 1..7) {
+                val week = BudgetPeriodCalculator.compute(IncomeFrequency.WEEKLY, resetDay, date)
+                assertEquals(7, week.lengthInDays)
+                assertEquals(resetDay, week.start.dayOfWeek.value)
+                assertEquals(true, date in week)
+            }
+            date = date.plusDays(1)
+        }
+    }
+
+    @Test
+    fun periodFor_reusesThePeriodUntilDateOrProfileChanges() {
+        val calculator = BudgetPeriodCalculator()
+        val profile = UserProfile(incomeFrequency = IncomeFrequency.MONTHLY, resetDay = 15)
+
+        val first = calculator.periodFor(profile, LocalDate.parse("2024-01-20"))
+        assertSame(first, calculator.periodFor(profile, LocalDate.parse("2024-02-14")))
+
+        val rolledOver = calculator.periodFor(profile, LocalDate.parse("2024-02-15"))
+        assertEquals(period("2024-02-15", "2024-03-15"), rolledOver)
+
+        val weeklyProfile = profile.copy(incomeFrequency = IncomeFrequency.WEEKLY, resetDay = 1)
+        val weekly = calculator.periodFor(weeklyProfile, LocalDate.parse("2024-02-15"))
+        assertNotSame(rolledOver, weekly)
+        assertEquals(period("2024-02-12", "2024-02-19"), weekly)
+    }
+}
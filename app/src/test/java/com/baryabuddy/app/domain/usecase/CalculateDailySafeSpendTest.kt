@@ -0,0 +1,97 @@
+package com.baryabuddy.app.domain.usecase
+
+import com.baryabuddy.app.data.database.entities.IncomeFrequency
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.entities.UserProfile
+import com.baryabuddy.app.domain.model.PeriodTotals
+import com.baryabuddy.app.domain.model.SafeSpendStatus
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.time.LocalDate
+import kotlin.random.Random
+
+class CalculateDailySafeSpendTest {
+
+    private val calculate = CalculateDailySafeSpend()
+
+    private val profiles = listOf(
+        UserProfile(incomeAmount = 2_000_000, fixedBillsAmount = 500_000, savingsGoalAmount = 200_000),
+        UserProfile(incomeAmount = 1_500_000, resetDay = 31),
+        UserProfile(incomeAmount = 300_000, fixedBillsAmount = 50_000, incomeFrequency = IncomeFrequency.WEEKLY, resetDay = 5),
+        UserProfile(incomeAmount = 100_000, fixedBillsAmount = 150_000, incomeFrequency = IncomeFrequency.IRREGULAR, resetDay = 15)
+    )
+
+    // Three months either side of the dates under test, mixed income and expenses
+    private fun ledger(random: Random, around: LocalDate, size: Int): List<Transaction> =
+        List(size) { index ->
+            val day = around.plusDays(random.nextLong(-90, 90))
+            Transaction(
+                id = index + 1L,
+                amountCentavos = random.nextLong(100, 500_000),
+                categoryId = if (random.nextInt(5) == 0) null else random.nextInt(1, 9),
+                dateUtcMillis = day.toEpochDay() * 86_400_000L,
+                epochDay = day.toEpochDay()
+            )
+        }
+
+    @Test
+    fun listAndPeriodTotalsOverloads_agree() {
+        val random = Random(42)
+        val start = LocalDate.parse("2024-01-01")
+        repeat(200) { round ->
+            val today = start.plusDays(random.nextLong(0, 366))
+            val transactions = ledger(random, today, size = random.nextInt(0, 400))
+            val profile = profiles[round % profiles.size]
+
+            val period = BudgetPeriodCalculator.compute(profile.incomeFrequency, profile.resetDay, today)
+            val inPeriod = transactions.filter { period.containsEpochDay(it.epochDay) }
+            val totals = PeriodTotals(
+                incomeCentavos = inPeriod.filter { it.categoryId == null }.sumOf { it.amountCentavos },
+                expenseCentavos = inPeriod.filter { it.categoryId != null }.sumOf { it.amountCentavos }
+            )
+
+            assertEquals(
+                "round $round on $today",
+                calculate(profile, totals, today),
+                calculate(profile, transactions, today)
+            )
+        }
+    }
+
+    @Test
+    fun transactionsOutsideThePeriod_areIgnored() {
+        val profile = profiles[0]
+        val today = LocalDate.parse("2024-03-10")
+        val lastMonth = today.minusMonths(1).toEpochDay()
+        val transactions = listOf(
+            Transaction(amountCentavos = 900_000, categoryId = 1, dateUtcMillis = 0L, epochDay = lastMonth)
+        )
+
+        assertEquals(
+            calculate(profile, PeriodTotals(), today),
+            calculate(profile, transactions, today)
+        )
+    }
+
+    @Test
+    fun dailySafeSpend_splitsRemainingOverDaysLeft() {
+        // ₱13,000 disposable over March; ₱1,000 spent, 22 days left including the 10th
+        val profile = profiles[0]
+        val today = LocalDate.parse("2024-03-10")
+        val result = calculate(profile, PeriodTotals(expenseCentavos = 100_000), today)
+
+        assertEquals(12_000.0, result.totalRemaining, 0.0)
+        assertEquals(1_200_000L / 22 / 100.0, result.dailySafeSpendAmount, 0.0)
+        assertEquals(SafeSpendStatus.GREEN, result.statusColor)
+    }
+
+    @Test
+    fun blownBudget_isZeroAndRed() {
+        val profile = profiles[0]
+        val today = LocalDate.parse("2024-03-10")
+        val result = calculate(profile, PeriodTotals(expenseCentavos = 2_000_000), today)
+
+        assertEquals(0.0, result.dailySafeSpendAmount, 0.0)
+        assertEquals(SafeSpendStatus.RED, result.statusColor)
+    }
+}
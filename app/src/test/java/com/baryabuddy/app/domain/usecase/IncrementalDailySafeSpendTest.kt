@@ -0,0 +1,127 @@
+package com.baryabuddy.app.domain.usecase
+
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.domain.model.BudgetPeriod
+import com.baryabuddy.app.domain.model.PeriodTotals
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.yield
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+import java.time.LocalDate
+
+class IncrementalDailySafeSpendTest {
+
+    private val march = BudgetPeriod(LocalDate.parse("2024-03-01"), LocalDate.parse("2024-04-01"))
+    private val inMarch = LocalDate.parse("2024-03-10").toEpochDay()
+    private val inFebruary = LocalDate.parse("2024-02-20").toEpochDay()
+
+    private var loads = 0
+    private val engine = IncrementalDailySafeSpend {
+        loads++
+        PeriodTotals(incomeCentavos = 1_000_000, expenseCentavos = 200_000)
+    }
+
+    private fun income(amount: Long, epochDay: Long = inMarch) =
+        Transaction(id = 1, amountCentavos = amount, dateUtcMillis = 0L, epochDay = epochDay)
+
+    private fun expense(amount: Long, epochDay: Long = inMarch) =
+        Transaction(id = 2, amountCentavos = amount, categoryId = 3, dateUtcMillis = 0L, epochDay = epochDay)
+
+    @Test
+    fun insert_addsToTheMatchingSide() = runBlocking {
+        engine.ensurePeriod(march)
+
+        engine.recordWrite(removed = null, added = income(50_000)) { }
+        engine.recordWrite(removed = null, added = expense(7_500)) { }
+
+        assertEquals(PeriodTotals(1_050_000, 207_500), engine.totals.value)
+        assertEquals(1, loads)
+    }
+
+    @Test
+    fun update_replacesTheOldAmount() = runBlocking {
+        engine.ensurePeriod(march)
+
+        engine.recordWrite(removed = expense(10_000), added = expense(25_000)) { }
+        // Expense turned into income
+        engine.recordWrite(removed = expense(25_000), added = income(25_000)) { }
+
+        assertEquals(PeriodTotals(1_025_000, 190_000), engine.totals.value)
+    }
+
+    @Test
+    fun delete_subtracts() = runBlocking {
+        engine.ensurePeriod(march)
+
+        engine.recordWrite(removed = income(100_000), added = null) { }
+
+        assertEquals(PeriodTotals(900_000, 200_000), engine.totals.value)
+    }
+
+    @Test
+    fun rowsOutsideThePeriod_onlyCountTheInPeriodSide() = runBlocking {
+        engine.ensurePeriod(march)
+
+        engine.recordWrite(removed = null, added = expense(99_999, inFebruary)) { }
+        assertEquals(PeriodTotals(1_000_000, 200_000), engine.totals.value)
+
+        // Moved from February into March: only the arrival counts
+        engine.recordWrite(removed = expense(5_000, inFebruary), added = expense(5_000)) { }
+        assertEquals(PeriodTotals(1_000_000, 205_000), engine.totals.value)
+
+        // ...and back out again
+        engine.recordWrite(removed = expense(5_000), added = expense(5_000, inFebruary)) { }
+        assertEquals(PeriodTotals(1_000_000, 200_000), engine.totals.value)
+    }
+
+    @Test
+    fun writeBeforeFirstLoad_isLeftToTheLoad() = runBlocking {
+        val id = engine.recordWrite(removed = null, added = income(50_000)) { 42L }
+
+        assertEquals(42L, id)
+        assertNull(engine.totals.value)
+        assertEquals(PeriodTotals(1_000_000, 200_000), engine.ensurePeriod(march))
+    }
+
+    @Test
+    fun recordedWrite_usesTheRowsTheWriteReports() = runBlocking {
+        engine.ensurePeriod(march)
+
+        val result = engine.recordWrite {
+            RecordedWrite(result = "updated", removed = income(300_000), added = income(100_000))
+        }
+
+        assertEquals("updated", result)
+        assertEquals(PeriodTotals(800_000, 200_000), engine.totals.value)
+    }
+
+    @Test
+    fun concurrentWrites_areEachCountedOnce() = runBlocking {
+        engine.ensurePeriod(march)
+
+        (1..100).map {
+            async {
+                engine.recordWrite(removed = null, added = expense(100)) { yield() }
+            }
+        }.awaitAll()
+
+        assertEquals(PeriodTotals(1_000_000, 210_000), engine.totals.value)
+    }
+
+    @Test
+    fun ensurePeriod_reloadsOnlyOnRollover() = runBlocking {
+        engine.ensurePeriod(march)
+        engine.ensurePeriod(march)
+        assertEquals(1, loads)
+
+        val april = BudgetPeriod(LocalDate.parse("2024-04-01"), LocalDate.parse("2024-05-01"))
+        engine.ensurePeriod(april)
+        assertEquals(2, loads)
+
+        engine.invalidate()
+        assertEquals(3, loads)
+    }
+}
@@ -0,0 +1,114 @@
+package com.baryabuddy.app.presentation.home
+
+import android.app.Application
+import androidx.room.InvalidationTracker
+import com.baryabuddy.app.data.database.AppDatabase
+import com.baryabuddy.app.data.database.entities.Transaction
+import com.baryabuddy.app.data.database.entities.UserProfile
+import com.baryabuddy.app.data.database.inMemoryDatabase
+import com.baryabuddy.app.data.database.testRepository
+import com.baryabuddy.app.data.repository.BaryaBuddyRepository
+import com.baryabuddy.app.domain.usecase.CalculateDailySafeSpend
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.filterNotNull
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.resetMain
+import kotlinx.coroutines.test.setMain
+import kotlinx.coroutines.withTimeout
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.time.LocalDate
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class HomeViewModelTest {
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.Default)
+    private lateinit var database: AppDatabase
+    private lateinit var repository: BaryaBuddyRepository
+    private lateinit var viewModel: HomeViewModel
+    private var collector: Job? = null
+
+    @Before
+    fun setUp() = runBlocking {
+        Dispatchers.setMain(UnconfinedTestDispatcher())
+        database = inMemoryDatabase()
+        repository = testRepository(database, scope)
+        repository.insertUserProfile(UserProfile(incomeAmount = 300_000, setupCompleted = true))
+        // The process-wide category registry holds its own observer; count from there
+        repository.categoryRegistry.filterNotNull().first()
+        viewModel = HomeViewModel(repository, CalculateDailySafeSpend())
+    }
+
+    @After
+    fun tearDown() {
+        collector?.cancel()
+        scope.cancel()
+        database.close()
+        Dispatchers.resetMain()
+    }
+
+    // Room has no public observer count; observerMap is the tracker's live registry
+    private fun roomObservers(): Int {
+        val field = InvalidationTracker::class.java.getDeclaredField("observerMap").apply { isAccessible = true }
+        val map = field.get(database.invalidationTracker)
+        return map.javaClass.getMethod("size").invoke(map) as Int
+    }
+
+    private suspend fun awaitState(predicate: (HomeUiState) -> Boolean): HomeUiState =
+        withTimeout(5_000) { viewModel.uiState.first(predicate) }
+
+    @Test
+    fun refreshes_neverAddRoomObservers() = runBlocking {
+        val baseline = roomObservers()
+        collector = scope.launch { viewModel.uiState.collect {} }
+        awaitState { it.dailySafeSpend != null }
+        // The dashboard's only Room observer: categories, for the recent rows' joined names
+        assertEquals(baseline + 1, roomObservers())
+
+        repeat(20) { viewModel.refreshData() }
+        delay(100)
+
+        assertEquals(baseline + 1, roomObservers())
+    }
+
+    @Test
+    fun writes_reachTheDashboardWithoutRefresh() = runBlocking {
+        collector = scope.launch { viewModel.uiState.collect {} }
+        val before = awaitState { it.dailySafeSpend != null }
+        val observers = roomObservers()
+
+        repository.addTransaction(
+            Transaction(
+                amountCentavos = 10_000,
+                categoryId = 1,
+                description = "Lunch",
+                dateUtcMillis = System.currentTimeMillis(),
+                epochDay = LocalDate.now().toEpochDay()
+            )
+        )
+        // Recent rows and period totals may land in separate emissions
+        val expectedRemaining = before.dailySafeSpend!!.totalRemaining - 100.0
+        val after = awaitState {
+            it.recentTransactions.size == 1 && it.dailySafeSpend?.totalRemaining == expectedRemaining
+        }
+
+        assertEquals("Lunch", after.recentTransactions.single().description)
+        assertEquals(observers, roomObservers())
+    }
+}
@@ -0,0 +1,39 @@
+package com.baryabuddy.app.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class JsonStringsTest {
+
+    private fun json(value: String?) = StringBuilder().also { JsonStrings.append(it, value) }.toString()
+
+    @Test
+    fun null_isTheJsonLiteral() {
+        assertEquals("null", json(null))
+    }
+
+    @Test
+    fun plainText_isQuoted() {
+        assertEquals("\"\"", json(""))
+        assertEquals("\"Jollibee ₱150\"", json("Jollibee ₱150"))
+    }
+
+    @Test
+    fun quotesAndBackslashes_areEscaped() {
+        assertEquals("\"say \\\"hi\\\"\"", json("say \"hi\""))
+        assertEquals("\"C:\\\\notes\"", json("C:\\notes"))
+    }
+
+    @Test
+    fun controlCharacters_areEscaped() {
+        assertEquals("\"a\\nb\\rc\\td\"", json("a\nb\rc\td"))
+        assertEquals("\"\\u0001\\u001f\"", json("\u0001\u001f"))
+    }
+
+    @Test
+    fun appendsToWhatIsAlreadyThere() {
+        val out = StringBuilder("{\"k\":")
+        JsonStrings.append(out, "v")
+        assertEquals("{\"k\":\"v\"", out.toString())
+    }
+}